@@ -0,0 +1,146 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.types.NumericOps.Arithmetic;
+import io.cloudchaser.murmur.types.NumericOps.Comparison;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares the scalar and vector numeric kernels over large decimal
+ * arrays. Both the sources and the run need the vector module:
+ * 
+ * <pre>
+ * java --add-modules jdk.incubator.vector \
+ *     io.cloudchaser.murmur.types.NumericBenchmark [size]
+ * </pre>
+ * 
+ * Each kernel is warmed up, then timed as the best of several rounds.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public final class NumericBenchmark {
+	
+	/**
+	 * The number of elements to process before timing a kernel.
+	 */
+	private static final long WARMUP = 1_000_000_000L;
+	
+	private static final int ROUNDS = 50;
+	
+	/**
+	 * Keeps the results alive, so the JIT compiler can't drop the work.
+	 */
+	private static double sink;
+	
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+		if(!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			System.err.println("Run with --add-modules jdk.incubator.vector.");
+			System.exit(1);
+		}
+		
+		// Create the operands.
+		Random random = new Random(42);
+		double[] a = new double[size], b = new double[size], c = new double[size];
+		for(int idx = 0; idx < size; idx++) {
+			a[idx] = random.nextDouble();
+			b[idx] = random.nextDouble();
+			c[idx] = random.nextDouble();
+		}
+		double[] r = new double[size];
+		boolean[] mask = new boolean[size];
+		
+		NumericKernels scalar = new ScalarKernels();
+		NumericKernels vector = new VectorKernels();
+		System.out.printf("%d decimals, kernels: %s%n", size,
+				NumericOps.KERNELS.getClass().getSimpleName());
+		System.out.printf("%-12s %12s %12s %8s%n", "kernel", "scalar (ms)", "vector (ms)", "speedup");
+		
+		// Time each kernel on both implementations.
+		compare("sum", size, () -> scalar.sum(a, size), () -> vector.sum(a, size));
+		compare("dot", size, () -> scalar.dot(a, b, size), () -> vector.dot(a, b, size));
+		compare("max", size, () -> scalar.extreme(a, size, true),
+				() -> vector.extreme(a, size, true));
+		compare("add", size, () -> {
+			scalar.apply(a, b, r, size, Arithmetic.ADD);
+			return r[size - 1];
+		}, () -> {
+			vector.apply(a, b, r, size, Arithmetic.ADD);
+			return r[size - 1];
+		});
+		compare("multiplyAdd", size, () -> {
+			scalar.multiplyAdd(a, b, c, r, size);
+			return r[size - 1];
+		}, () -> {
+			vector.multiplyAdd(a, b, c, r, size);
+			return r[size - 1];
+		});
+		compare("lessThan", size, () -> {
+			scalar.compare(a, b, mask, size, Comparison.LESS_THAN);
+			return mask[size - 1] ? 1 : 0;
+		}, () -> {
+			vector.compare(a, b, mask, size, Comparison.LESS_THAN);
+			return mask[size - 1] ? 1 : 0;
+		});
+		
+		// Check that both agree, up to summation order.
+		double expected = scalar.dot(a, b, size), actual = vector.dot(a, b, size);
+		if(Math.abs(expected - actual) > 1e-9 * Math.abs(expected)) {
+			throw new AssertionError("Dot products differ: " + expected + " and " + actual);
+		}
+		System.out.printf("checksum %.3f%n", sink);
+	}
+	
+	private static void compare(String name, int size,
+			Supplier<Number> scalar, Supplier<Number> vector) {
+		double slow = time(scalar, size), fast = time(vector, size);
+		System.out.printf("%-12s %12.3f %12.3f %7.2fx%n", name, slow, fast, slow / fast);
+	}
+	
+	/**
+	 * Times a kernel, in milliseconds.
+	 * 
+	 * @param kernel The kernel to run.
+	 * @param size The number of elements the kernel processes.
+	 * @return The best time of all rounds.
+	 */
+	private static double time(Supplier<Number> kernel, int size) {
+		for(long idx = 0; idx < WARMUP / size + 1; idx++) {
+			sink += kernel.get().doubleValue();
+		}
+		long best = Long.MAX_VALUE;
+		for(int idx = 0; idx < ROUNDS; idx++) {
+			long start = System.nanoTime();
+			sink += kernel.get().doubleValue();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+	
+}
@@ -0,0 +1,283 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur;
+
+import io.cloudchaser.murmur.parser.MurmurLexer;
+import io.cloudchaser.murmur.parser.MurmurParser;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * Prunes code that can never run, or whose result is never used, from a
+ * parse tree before it is executed.
+ * <ul>
+ * <li>Unused <code>let</code> bindings with side-effect free initializers.</li>
+ * <li>Statements following a <code>return</code> in a block.</li>
+ * <li>Ternary expressions over boolean literals, replaced by the branch
+ * that is taken.</li>
+ * </ul>
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+class DeadCodeEliminator {
+	
+	/**
+	 * Every identifier that is read somewhere in the unit.
+	 */
+	private final Set<String> reads = new HashSet<>();
+	
+	/**
+	 * Prunes dead code from a compilation unit.
+	 * 
+	 * @param unit The compilation unit.
+	 */
+	public void eliminate(MurmurParser.CompilationUnitContext unit) {
+		collectReads(unit);
+		prune(unit);
+	}
+	
+	/**
+	 * Collects every identifier used outside of a let declaration.
+	 * Names are matched regardless of scope, so shadowed bindings are
+	 * conservatively kept.
+	 * 
+	 * @param tree The tree to search.
+	 */
+	private void collectReads(ParseTree tree) {
+		if(tree instanceof TerminalNode) {
+			TerminalNode node = (TerminalNode)tree;
+			if(node.getSymbol().getType() == MurmurLexer.Identifier &&
+					!(node.getParent() instanceof
+					MurmurParser.InitializerElementContext)) {
+				reads.add(node.getText());
+			}
+			return;
+		}
+		
+		for(int idx = 0; idx < tree.getChildCount(); idx++) {
+			collectReads(tree.getChild(idx));
+		}
+	}
+	
+	/**
+	 * Checks if an expression can be skipped without observable effects.
+	 * 
+	 * @param ctx The expression to check.
+	 * @return <code>true</code> if the expression is pure.
+	 */
+	private static boolean isPure(MurmurParser.ExpressionContext ctx) {
+		if(ctx == null) return false;
+		
+		// Literals (other than 'this' and 'super').
+		if(ctx.literal() != null) {
+			String text = ctx.literal().getText();
+			return !text.equals("this") && !text.equals("super");
+		}
+		
+		// Lambdas, which only capture their context.
+		if(ctx.lambda() != null && ctx.left == null) {
+			return true;
+		}
+		
+		// Parenthesized.
+		if(ctx.inner != null) {
+			return isPure(ctx.inner);
+		}
+		
+		// Array values, with pure elements.
+		if(ctx.operator != null && ctx.left == null &&
+				ctx.operator.getText().equals("[")) {
+			return ctx.expressionList() == null ||
+					ctx.expressionList().expression().stream()
+							.allMatch(DeadCodeEliminator::isPure);
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Checks for a boolean literal, possibly parenthesized.
+	 * 
+	 * @param ctx The expression to check.
+	 * @return The literal's value, or <code>null</code>.
+	 */
+	private static Boolean getBooleanLiteral(MurmurParser.ExpressionContext ctx) {
+		if(ctx.inner != null) {
+			return getBooleanLiteral(ctx.inner);
+		}
+		if(ctx.literal() != null && ctx.literal().BooleanLiteral() != null) {
+			return Boolean.parseBoolean(ctx.literal().getText());
+		}
+		return null;
+	}
+	
+	private static boolean isKeyword(MurmurParser.StatementContext statement,
+			String keyword) {
+		MurmurParser.KeywordStatementContext ctx = statement.keywordStatement();
+		return ctx != null && ctx.operator != null &&
+				ctx.operator.getText().equals(keyword);
+	}
+	
+	/**
+	 * Removes unused let initializers from a statement.
+	 * 
+	 * @param statement The statement to prune.
+	 * @return <code>true</code> if the whole statement is dead.
+	 */
+	private boolean pruneLet(MurmurParser.StatementContext statement) {
+		if(!isKeyword(statement, "let")) return false;
+		MurmurParser.InitializerListContext list =
+				statement.keywordStatement().initializerList();
+		if(list == null) return false;
+		
+		// Drop unused, side-effect free initializers.
+		list.initializerElement().stream()
+				.filter((element) -> isPure(element.expression()) &&
+						!reads.contains(element.Identifier().getText()))
+				.forEach((element) -> removeElement(list, element));
+		
+		return list.initializerElement().isEmpty();
+	}
+	
+	/**
+	 * Removes an element from a comma separated list, along with the
+	 * separator before it, or after it if it is the first element.
+	 * 
+	 * @param list The list rule.
+	 * @param element The element to remove.
+	 */
+	private static void removeElement(ParserRuleContext list, ParseTree element) {
+		int index = list.children.indexOf(element);
+		if(index > 0) {
+			list.children.remove(index - 1);
+		} else if(list.getChildCount() > 1) {
+			list.children.remove(1);
+		}
+		list.children.remove(element);
+	}
+	
+	/**
+	 * Replaces ternary expressions over boolean literals with the branch
+	 * that is taken, repeatedly.
+	 * 
+	 * @param ctx The expression to fold.
+	 * @return The folded expression, or the expression itself.
+	 */
+	private static MurmurParser.ExpressionContext foldTernary(
+			MurmurParser.ExpressionContext ctx) {
+		while(ctx.clause != null && ctx.expression().size() == 3) {
+			Boolean value = getBooleanLiteral(ctx.clause);
+			if(value == null) break;
+			ctx = ctx.expression(value ? 1 : 2);
+		}
+		return ctx;
+	}
+	
+	/**
+	 * Replaces a child of a rule, including any labels that refer to it.
+	 * 
+	 * @param parent The parent rule.
+	 * @param child The child to replace.
+	 * @param replacement The replacement child.
+	 */
+	private static void replaceChild(ParserRuleContext parent,
+			MurmurParser.ExpressionContext child,
+			MurmurParser.ExpressionContext replacement) {
+		parent.children.set(parent.children.indexOf(child), replacement);
+		replacement.parent = parent;
+		
+		// Update the labelled references.
+		if(parent instanceof MurmurParser.ExpressionContext) {
+			MurmurParser.ExpressionContext ctx =
+					(MurmurParser.ExpressionContext)parent;
+			if(ctx.left == child) ctx.left = replacement;
+			if(ctx.clause == child) ctx.clause = replacement;
+			if(ctx.right == child) ctx.right = replacement;
+			if(ctx.inner == child) ctx.inner = replacement;
+			if(ctx.index == child) ctx.index = replacement;
+		}
+	}
+	
+	/**
+	 * Prunes the statement list of a block or compilation unit.
+	 * 
+	 * @param ctx The block or compilation unit.
+	 * @param statements The statements in the rule.
+	 * @param canReturn Whether a return ends the statement list.
+	 */
+	private void pruneStatements(ParserRuleContext ctx,
+			List<MurmurParser.StatementContext> statements, boolean canReturn) {
+		List<ParseTree> dead = new ArrayList<>();
+		
+		for(int idx = 0; idx < statements.size(); idx++) {
+			MurmurParser.StatementContext statement = statements.get(idx);
+			if(pruneLet(statement)) {
+				dead.add(statement);
+			} else if(canReturn && isKeyword(statement, "return")) {
+				// Everything after a return is unreachable.
+				dead.addAll(statements.subList(idx + 1, statements.size()));
+				break;
+			}
+		}
+		
+		ctx.children.removeAll(dead);
+	}
+	
+	private void prune(ParseTree tree) {
+		if(tree instanceof MurmurParser.CompilationUnitContext) {
+			MurmurParser.CompilationUnitContext ctx =
+					(MurmurParser.CompilationUnitContext)tree;
+			pruneStatements(ctx, ctx.statement(), false);
+		} else if(tree instanceof MurmurParser.BlockContext) {
+			MurmurParser.BlockContext ctx = (MurmurParser.BlockContext)tree;
+			pruneStatements(ctx, ctx.statement(), true);
+		}
+		
+		for(int idx = 0; idx < tree.getChildCount(); idx++) {
+			ParseTree child = tree.getChild(idx);
+			
+			// Fold ternaries over constant clauses.
+			if(child instanceof MurmurParser.ExpressionContext) {
+				MurmurParser.ExpressionContext folded = foldTernary(
+						(MurmurParser.ExpressionContext)child);
+				if(folded != child) {
+					replaceChild((ParserRuleContext)tree,
+							(MurmurParser.ExpressionContext)child, folded);
+					child = folded;
+				}
+			}
+			
+			prune(child);
+		}
+	}
+	
+}
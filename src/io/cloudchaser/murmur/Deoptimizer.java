@@ -0,0 +1,506 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur;
+
+import io.cloudchaser.murmur.parser.MurmurParser;
+import io.cloudchaser.murmur.symbol.SymbolContext;
+import io.cloudchaser.murmur.types.MurmurDecimal;
+import io.cloudchaser.murmur.types.MurmurInteger;
+import io.cloudchaser.murmur.types.MurmurObject;
+import io.cloudchaser.murmur.types.MurmurOperator;
+import io.cloudchaser.murmur.types.MurmurType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.antlr.v4.runtime.ParserRuleContext;
+
+/**
+ * Tracks speculative operator specializations, and falls back to the generic
+ * operator path when a speculation's guard fails.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+class Deoptimizer {
+	
+	/**
+	 * Invocations a unit needs before its sites may speculate.
+	 */
+	static final int TIER_UP_THRESHOLD = 32;
+	
+	/**
+	 * Site executions a unit needs before it is promoted in place, for
+	 * units that are rarely invoked but run for a long time.
+	 */
+	static final int OSR_THRESHOLD = 1000;
+	
+	/**
+	 * Deoptimizations a unit may take before speculation is disabled.
+	 */
+	static final int UNIT_DEOPT_LIMIT = 16;
+	
+	/**
+	 * Deoptimizations a single site may take before it stays generic.
+	 */
+	static final int SITE_DEOPT_LIMIT = 2;
+	
+	/**
+	 * The speculative state of a single site.
+	 */
+	static enum SiteState {
+		UNINITIALIZED,
+		INTEGER,
+		DECIMAL,
+		GENERIC
+	}
+	
+	/**
+	 * Execution profile of a function body (or the compilation unit).
+	 */
+	static class UnitProfile {
+		
+		/**
+		 * The parser rule this profile belongs to.
+		 */
+		private final ParserRuleContext unit;
+		
+		/**
+		 * The number of times this unit has been invoked.
+		 */
+		private int invocations;
+		
+		/**
+		 * The number of unspecialized site executions within this unit.
+		 */
+		private int executions;
+		
+		/**
+		 * The number of deoptimizations within this unit.
+		 */
+		private int deopts;
+		
+		/**
+		 * Set once this unit has deoptimized too often.
+		 */
+		private boolean disabled;
+
+		public UnitProfile(ParserRuleContext unit) {
+			this.unit = unit;
+		}
+
+		public ParserRuleContext getUnit() {
+			return unit;
+		}
+		
+		/**
+		 * Gets the stable (per-source) key of this unit.
+		 * 
+		 * @return The unit's starting token index.
+		 */
+		public int getKey() {
+			return unit.start.getTokenIndex();
+		}
+
+		public int getInvocations() {
+			return invocations;
+		}
+
+		public int getExecutions() {
+			return executions;
+		}
+
+		public int getDeopts() {
+			return deopts;
+		}
+
+		public boolean isDisabled() {
+			return disabled;
+		}
+		
+		public boolean canSpeculate() {
+			return !disabled && (invocations >= TIER_UP_THRESHOLD ||
+					executions >= OSR_THRESHOLD);
+		}
+		
+		/**
+		 * Records an unspecialized site execution, and checks if the unit
+		 * may now speculate. Units that are never invoked (such as the
+		 * compilation unit) are promoted here, while their frame is live.
+		 * 
+		 * @return <code>true</code> if the unit may speculate.
+		 */
+		public boolean onExecute() {
+			if(disabled) return false;
+			if(invocations >= TIER_UP_THRESHOLD) return true;
+			
+			// Check for on-stack replacement.
+			if(++executions == OSR_THRESHOLD) {
+				LOGGER.log(Level.FINE, "On-stack replacement for unit at line {0}",
+						unit.start.getLine());
+			}
+			return executions >= OSR_THRESHOLD;
+		}
+		
+	}
+	
+	/**
+	 * A single speculated operator in the parse tree.
+	 */
+	static class SpeculationSite {
+		
+		/**
+		 * The unit containing this site.
+		 */
+		private final UnitProfile unit;
+		
+		/**
+		 * The stable (per-source) key of this site.
+		 */
+		private final int key;
+		
+		/**
+		 * The operator applied at this site.
+		 */
+		private final MurmurOperator operator;
+		
+		/**
+		 * The current speculation.
+		 */
+		private SiteState state = SiteState.UNINITIALIZED;
+		
+		/**
+		 * The number of deoptimizations at this site.
+		 */
+		private int deopts;
+
+		public SpeculationSite(UnitProfile unit, int key,
+				MurmurOperator operator) {
+			this.unit = unit;
+			this.key = key;
+			this.operator = operator;
+		}
+
+		public UnitProfile getUnit() {
+			return unit;
+		}
+
+		public int getKey() {
+			return key;
+		}
+
+		public MurmurOperator getOperator() {
+			return operator;
+		}
+
+		public SiteState getState() {
+			return state;
+		}
+
+		public int getDeopts() {
+			return deopts;
+		}
+		
+	}
+	
+	/**
+	 * The interpreter state captured when a speculation's guard fails.
+	 * Operands have already been evaluated, so resuming only has to
+	 * apply the generic operator within the same frame.
+	 */
+	static class FrameState {
+		
+		private final SpeculationSite site;
+		private final SymbolContext frame;
+		private final int lineNumber;
+		private final MurmurObject left;
+		private final MurmurObject right;
+
+		public FrameState(SpeculationSite site, SymbolContext frame,
+				int lineNumber, MurmurObject left, MurmurObject right) {
+			this.site = site;
+			this.frame = frame;
+			this.lineNumber = lineNumber;
+			this.left = left;
+			this.right = right;
+		}
+
+		public SpeculationSite getSite() {
+			return site;
+		}
+
+		public SymbolContext getFrame() {
+			return frame;
+		}
+
+		public int getLineNumber() {
+			return lineNumber;
+		}
+		
+		/**
+		 * Resumes execution in the generic tier.
+		 * 
+		 * @return The result of the generic operation.
+		 */
+		public MurmurObject resume() {
+			return site.operator.apply(left, right);
+		}
+		
+	}
+	
+	private static final Logger LOGGER =
+			Logger.getLogger(Deoptimizer.class.getName());
+	
+	/**
+	 * Unit profiles, keyed by function body.
+	 */
+	private final Map<ParserRuleContext, UnitProfile> units =
+			new IdentityHashMap<>();
+	
+	/**
+	 * Speculation sites, keyed by expression.
+	 */
+	private final Map<MurmurParser.ExpressionContext, SpeculationSite> sites =
+			new IdentityHashMap<>();
+	
+	/**
+	 * Loaded unit profiles, keyed by unit key, applied on first use.
+	 */
+	private final Map<Integer, UnitProfile> unitSeeds = new HashMap<>();
+	
+	/**
+	 * Loaded site profiles, keyed by site key, applied on first use.
+	 */
+	private final Map<Integer, SpeculationSite> siteSeeds = new HashMap<>();
+	
+	/**
+	 * Finds the unit (function body or compilation unit) enclosing a rule.
+	 * 
+	 * @param rule The rule to search from.
+	 * @return The enclosing unit.
+	 */
+	private static ParserRuleContext getEnclosingUnit(ParserRuleContext rule) {
+		for(ParserRuleContext node = rule; node != null;
+				node = node.getParent()) {
+			if(node instanceof MurmurParser.LambdaContext) {
+				return ((MurmurParser.LambdaContext)node).block();
+			}
+			if(node.getParent() == null) {
+				return node;
+			}
+		}
+		
+		// Unreachable.
+		return rule;
+	}
+	
+	public UnitProfile getUnit(ParserRuleContext unit) {
+		UnitProfile profile = units.get(unit);
+		if(profile == null) {
+			profile = new UnitProfile(unit);
+			units.put(unit, profile);
+			
+			// Apply a loaded profile, if any.
+			UnitProfile seed = unitSeeds.remove(profile.getKey());
+			if(seed != null) {
+				profile.invocations = seed.invocations;
+				profile.executions = seed.executions;
+				profile.deopts = seed.deopts;
+				profile.disabled = seed.disabled;
+			}
+		}
+		return profile;
+	}
+	
+	public Collection<UnitProfile> getUnits() {
+		return Collections.unmodifiableCollection(units.values());
+	}
+	
+	public Collection<SpeculationSite> getSites() {
+		return Collections.unmodifiableCollection(sites.values());
+	}
+	
+	/**
+	 * Seeds a unit profile, loaded from a previous run.
+	 * 
+	 * @param key The unit's key.
+	 * @param invocations The recorded invocation count.
+	 * @param executions The recorded execution count.
+	 * @param deopts The recorded deoptimization count.
+	 * @param disabled Whether speculation was disabled.
+	 */
+	public void seedUnit(int key, int invocations, int executions,
+			int deopts, boolean disabled) {
+		UnitProfile seed = new UnitProfile(null);
+		
+		// Only hotness matters; clamp so counters can't overflow across runs.
+		seed.invocations = Math.min(invocations, TIER_UP_THRESHOLD);
+		seed.executions = Math.min(executions, OSR_THRESHOLD);
+		seed.deopts = deopts;
+		seed.disabled = disabled;
+		unitSeeds.put(key, seed);
+	}
+	
+	/**
+	 * Seeds a site's speculation, loaded from a previous run.
+	 * 
+	 * @param key The site's key.
+	 * @param state The recorded speculation.
+	 * @param deopts The recorded deoptimization count.
+	 */
+	public void seedSite(int key, SiteState state, int deopts) {
+		SpeculationSite seed = new SpeculationSite(null, key, null);
+		seed.state = state;
+		seed.deopts = deopts;
+		siteSeeds.put(key, seed);
+	}
+	
+	/**
+	 * Records an invocation of a function body.
+	 * 
+	 * @param body The body being invoked.
+	 */
+	public void enter(ParserRuleContext body) {
+		getUnit(body).invocations++;
+	}
+	
+	public SpeculationSite getSite(MurmurParser.ExpressionContext ctx,
+			MurmurOperator operator) {
+		SpeculationSite site = sites.get(ctx);
+		if(site == null) {
+			int key = ctx.operator.getTokenIndex();
+			site = new SpeculationSite(getUnit(
+					getEnclosingUnit(ctx)), key, operator);
+			sites.put(ctx, site);
+			
+			// Apply a loaded speculation, if any.
+			SpeculationSite seed = siteSeeds.remove(key);
+			if(seed != null) {
+				site.state = seed.state;
+				site.deopts = seed.deopts;
+			}
+		}
+		return site;
+	}
+	
+	/**
+	 * Evaluates an operator at a site, speculating on operand types
+	 * once the enclosing unit is hot.
+	 * 
+	 * @param ctx The expression being evaluated.
+	 * @param operator The operator being applied.
+	 * @param left The (desymbolized) left operand.
+	 * @param right The (desymbolized) right operand.
+	 * @param frame The current interpreter frame.
+	 * @return The result of the operation.
+	 */
+	public MurmurObject evaluate(MurmurParser.ExpressionContext ctx,
+			MurmurOperator operator, MurmurObject left, MurmurObject right,
+			SymbolContext frame) {
+		SpeculationSite site = getSite(ctx, operator);
+		
+		switch(site.state) {
+			case INTEGER:
+				// Guard: both operands are integers.
+				if(left instanceof MurmurInteger &&
+						right instanceof MurmurInteger) {
+					return operator.apply(((MurmurInteger)left).getValue(),
+							((MurmurInteger)right).getValue());
+				}
+				break;
+			case DECIMAL:
+				// Guard: both operands are decimals.
+				if(left instanceof MurmurDecimal &&
+						right instanceof MurmurDecimal) {
+					return operator.apply(((MurmurDecimal)left).getValue(),
+							((MurmurDecimal)right).getValue());
+				}
+				break;
+			case UNINITIALIZED:
+				// Specialize once the unit is hot. The live frame carries
+				// straight over, since sites are consulted on every pass.
+				if(site.unit.onExecute()) {
+					site.state = specialize(left, right);
+				}
+				return operator.apply(left, right);
+			default:
+				return operator.apply(left, right);
+		}
+		
+		// A guard failed.
+		return deoptimize(new FrameState(site, frame,
+				ctx.start.getLine(), left, right));
+	}
+	
+	/**
+	 * Picks a speculation for a pair of operands.
+	 * 
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @return The speculated site state.
+	 */
+	private static SiteState specialize(MurmurObject left, MurmurObject right) {
+		if(left.getType() == MurmurType.INTEGER &&
+				right.getType() == MurmurType.INTEGER) {
+			return SiteState.INTEGER;
+		}
+		if(left.getType() == MurmurType.DECIMAL &&
+				right.getType() == MurmurType.DECIMAL) {
+			return SiteState.DECIMAL;
+		}
+		return SiteState.GENERIC;
+	}
+	
+	/**
+	 * Discards a failed speculation and resumes in the generic tier.
+	 * 
+	 * @param state The captured frame state.
+	 * @return The result of the resumed operation.
+	 */
+	public MurmurObject deoptimize(FrameState state) {
+		SpeculationSite site = state.getSite();
+		UnitProfile unit = site.unit;
+		
+		// Re-profile the site, unless it keeps failing.
+		site.state = ++site.deopts >= SITE_DEOPT_LIMIT ?
+				SiteState.GENERIC : SiteState.UNINITIALIZED;
+		
+		// Disable speculation for units that keep failing.
+		if(++unit.deopts >= UNIT_DEOPT_LIMIT && !unit.disabled) {
+			unit.disabled = true;
+			LOGGER.log(Level.FINE, "Speculation disabled for unit at line {0}",
+					unit.unit.start.getLine());
+		}
+		
+		LOGGER.log(Level.FINER, "Deoptimized ''{0}'' at line {1}",
+				new Object[] { site.operator.symbol, state.getLineNumber() });
+		return state.resume();
+	}
+	
+}
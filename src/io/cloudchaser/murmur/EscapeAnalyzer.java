@@ -0,0 +1,227 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur;
+
+import io.cloudchaser.murmur.parser.MurmurLexer;
+import io.cloudchaser.murmur.parser.MurmurParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * Finds array values that never escape their let binding, so that their
+ * elements can be stored directly in the frame instead of an array.
+ * <p>
+ * A binding qualifies when its name is declared once in the unit, is
+ * initialized with an array value, and every use is an index with an
+ * integer literal within the array's bounds.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+class EscapeAnalyzer {
+	
+	/**
+	 * Slot names for scalar replaced let initializers.
+	 */
+	private final ParseTreeProperty<String[]> allocations =
+			new ParseTreeProperty<>();
+	
+	/**
+	 * Slot names for index expressions into scalar replaced arrays.
+	 */
+	private final ParseTreeProperty<String> accesses =
+			new ParseTreeProperty<>();
+	
+	/**
+	 * Every identifier in the unit, by name.
+	 */
+	private final Map<String, List<TerminalNode>> identifiers =
+			new HashMap<>();
+	
+	/**
+	 * Gets the name of the frame slot backing an array element.
+	 * The name can't clash with any identifier in the source.
+	 * 
+	 * @param name The name of the array binding.
+	 * @param index The element index.
+	 * @return The slot name.
+	 */
+	public static String getSlotName(String name, int index) {
+		return name + "[" + index + "]";
+	}
+	
+	/**
+	 * Analyzes a compilation unit.
+	 * 
+	 * @param unit The compilation unit.
+	 */
+	public void analyze(MurmurParser.CompilationUnitContext unit) {
+		collectIdentifiers(unit);
+		findAllocations(unit);
+	}
+	
+	/**
+	 * Gets the slot names of a scalar replaced let initializer.
+	 * 
+	 * @param element The initializer element.
+	 * @return The slot names, or <code>null</code> if not replaced.
+	 */
+	public String[] getAllocation(MurmurParser.InitializerElementContext element) {
+		return allocations.get(element);
+	}
+	
+	/**
+	 * Gets the slot name of an index into a scalar replaced array.
+	 * 
+	 * @param ctx The index expression.
+	 * @return The slot name, or <code>null</code> if not replaced.
+	 */
+	public String getAccess(MurmurParser.ExpressionContext ctx) {
+		return accesses.get(ctx);
+	}
+	
+	private void collectIdentifiers(ParseTree tree) {
+		if(tree instanceof TerminalNode) {
+			TerminalNode node = (TerminalNode)tree;
+			if(node.getSymbol().getType() == MurmurLexer.Identifier) {
+				identifiers.computeIfAbsent(node.getText(),
+						(key) -> new ArrayList<>()).add(node);
+			}
+			return;
+		}
+		
+		for(int idx = 0; idx < tree.getChildCount(); idx++) {
+			collectIdentifiers(tree.getChild(idx));
+		}
+	}
+	
+	private void findAllocations(ParseTree tree) {
+		if(tree instanceof MurmurParser.InitializerElementContext) {
+			analyzeElement((MurmurParser.InitializerElementContext)tree);
+		}
+		
+		for(int idx = 0; idx < tree.getChildCount(); idx++) {
+			findAllocations(tree.getChild(idx));
+		}
+	}
+	
+	/**
+	 * Parses a plain decimal integer literal.
+	 * 
+	 * @param ctx The expression to parse.
+	 * @return The integer value, or <code>null</code>.
+	 */
+	private static Integer getIndexLiteral(MurmurParser.ExpressionContext ctx) {
+		boolean negative = false;
+		
+		// Allow a leading minus.
+		if(ctx.operator != null && ctx.left == null &&
+				ctx.operator.getText().equals("-")) {
+			negative = true;
+			ctx = ctx.right;
+		}
+		
+		if(ctx.literal() == null || ctx.literal().IntegerLiteral() == null) {
+			return null;
+		}
+		
+		try {
+			String text = ctx.getText().toLowerCase().replaceAll("(_|l)", "");
+			if(text.length() > 1 && text.startsWith("0")) return null;
+			int value = Integer.parseInt(text);
+			return negative ? -value : value;
+		} catch(NumberFormatException ex) {
+			return null;
+		}
+	}
+	
+	private void analyzeElement(MurmurParser.InitializerElementContext element) {
+		MurmurParser.ExpressionContext value = element.expression();
+		
+		// Must be initialized with an array value.
+		if(value == null || value.operator == null || value.left != null ||
+				!value.operator.getText().equals("[")) {
+			return;
+		}
+		
+		String name = element.Identifier().getText();
+		int size = value.expressionList() == null ? 0 :
+				value.expressionList().expression().size();
+		
+		// Every other use must be a constant, in-bounds index.
+		Map<MurmurParser.ExpressionContext, String> uses = new HashMap<>();
+		for(TerminalNode node : identifiers.get(name)) {
+			if(node == element.Identifier()) continue;
+			
+			// Must be a plain identifier expression.
+			if(!(node.getParent() instanceof MurmurParser.ExpressionContext)) {
+				return;
+			}
+			
+			MurmurParser.ExpressionContext ctx =
+					(MurmurParser.ExpressionContext)node.getParent();
+			if(ctx.operator != null || ctx.getChildCount() != 1) {
+				return;
+			}
+			
+			// Must be the target of an index.
+			if(!(ctx.getParent() instanceof MurmurParser.ExpressionContext)) {
+				return;
+			}
+			
+			MurmurParser.ExpressionContext index =
+					(MurmurParser.ExpressionContext)ctx.getParent();
+			if(index.left != ctx || index.operator == null ||
+					!index.operator.getText().equals("[")) {
+				return;
+			}
+			
+			// Must be a constant, in-bounds index.
+			Integer position = getIndexLiteral(index.index);
+			if(position == null || position >= size || position < -size) {
+				return;
+			}
+			
+			// Handle negative indexing.
+			if(position < 0) position += size;
+			uses.put(index, getSlotName(name, position));
+		}
+		
+		// The array doesn't escape; replace it.
+		String[] slots = new String[size];
+		for(int idx = 0; idx < size; idx++) {
+			slots[idx] = getSlotName(name, idx);
+		}
+		allocations.put(element, slots);
+		uses.forEach(accesses::put);
+	}
+	
+}
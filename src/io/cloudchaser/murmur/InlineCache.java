@@ -0,0 +1,79 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur;
+
+import io.cloudchaser.murmur.types.ComponentShape;
+
+/**
+ * A monomorphic cache of a member's slot, for a single expression. The key
+ * is the shape or interface the slot was resolved against.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+class InlineCache {
+	
+	/**
+	 * The shape or interface the cached slot belongs to.
+	 */
+	private Object key;
+	
+	/**
+	 * The cached slot.
+	 */
+	private int slot;
+	
+	/**
+	 * Checks if the cache holds a slot for the given key.
+	 * 
+	 * @param key The shape or interface being accessed.
+	 * @return <code>true</code> on a cache hit.
+	 */
+	public boolean matches(Object key) {
+		return this.key == key;
+	}
+	
+	/**
+	 * Checks if the cache holds a slot valid for the given shape. Slots
+	 * cached for a base shape are shared by the shapes extending it.
+	 * 
+	 * @param shape The shape being accessed.
+	 * @return <code>true</code> on a cache hit.
+	 */
+	public boolean matches(ComponentShape shape) {
+		return key == shape || (key instanceof ComponentShape &&
+				shape.extendsShape((ComponentShape)key));
+	}
+	
+	public int getSlot() {
+		return slot;
+	}
+	
+	public void update(Object key, int slot) {
+		this.key = key;
+		this.slot = slot;
+	}
+	
+}
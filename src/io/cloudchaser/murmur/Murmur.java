@@ -28,16 +28,19 @@ import io.cloudchaser.murmur.parser.MurmurLexer;
 import io.cloudchaser.murmur.parser.MurmurParser;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.TokenStream;
-import org.antlr.v4.runtime.tree.ParseTreeVisitor;
 
 /**
  *
@@ -51,23 +54,65 @@ public class Murmur {
 	 * @param args
 	 */
     public static void main(String[] args) {
+		String file = null;
+		Path saveProfile = null;
+		Path loadProfile = null;
+		
+		// Parse command line options.
+		for(int idx = 0; idx < args.length; idx++) {
+			switch(args[idx]) {
+				case "--save-profile":
+					if(idx + 1 == args.length) usage();
+					saveProfile = Paths.get(args[++idx]);
+					break;
+				case "--load-profile":
+					if(idx + 1 == args.length) usage();
+					loadProfile = Paths.get(args[++idx]);
+					break;
+				default:
+					file = args[idx];
+					break;
+			}
+		}
+		
+		// A script file is required.
+		if(file == null) usage();
+		if(!Files.isRegularFile(Paths.get(file))) {
+			System.err.printf("Script not found: %1$s%n", file);
+			usage();
+		}
+		
 		try {
-			Reader reader = new BufferedReader(new FileReader(args[0]));
+			byte[] source = Files.readAllBytes(Paths.get(file));
+			Reader reader = new BufferedReader(new InputStreamReader(
+					new ByteArrayInputStream(source)));
 			ANTLRInputStream input = new ANTLRInputStream(reader);
 			MurmurLexer lexer = new MurmurLexer(input);
 			TokenStream tokens = new CommonTokenStream(lexer);
 			MurmurParser parser = new MurmurParser(tokens);
 			
 			// Build a symbol table for the file.
-			ParseTreeVisitor visitor = new MurmurASTVisitor();
+			MurmurASTVisitor visitor = new MurmurASTVisitor();
+			String hash = MurmurProfile.hash(source);
+			
+			// Seed type feedback from a previous run.
+			if(loadProfile != null && Files.exists(loadProfile)) {
+				MurmurProfile.load(loadProfile, hash, visitor.getDeoptimizer());
+			}
+			
 			visitor.visit(parser.compilationUnit());
+			
+			// Save type feedback for later runs.
+			if(saveProfile != null) {
+				MurmurProfile.save(saveProfile, hash, visitor.getDeoptimizer());
+			}
 		} catch(IOException ex) {
 			Logger.getLogger(Murmur.class.getName())
 					.log(Level.SEVERE, null, ex);
 		} catch(MurmurError err) {
 			// Output an error message.
 			System.err.printf("Murmur Error: %1$s%n", err.getMessage());
-			System.err.printf("(%1$s @Line %2$d)%n", args[0], err.getLineNumber());
+			System.err.printf("(%1$s @Line %2$d)%n", file, err.getLineNumber());
 			System.err.printf(">\t%1$s%n%n", err.getLineText());
 			
 			// Display the call stack.
@@ -84,4 +129,13 @@ public class Murmur {
 		}
     }
 	
+	/**
+	 * Prints the command line usage, and exits.
+	 */
+	private static void usage() {
+		System.err.println("Usage: murmur [--save-profile <file>] "
+				+ "[--load-profile <file>] <script>");
+		System.exit(1);
+	}
+	
 }
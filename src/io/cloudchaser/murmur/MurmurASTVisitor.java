@@ -26,9 +26,15 @@ package io.cloudchaser.murmur;
 
 import io.cloudchaser.murmur.parser.MurmurParser;
 import io.cloudchaser.murmur.parser.MurmurParserBaseVisitor;
+import io.cloudchaser.murmur.symbol.ElementSymbol;
+import io.cloudchaser.murmur.symbol.FieldSymbol;
 import io.cloudchaser.murmur.symbol.LetSymbol;
 import io.cloudchaser.murmur.symbol.Symbol;
 import io.cloudchaser.murmur.symbol.SymbolContext;
+import io.cloudchaser.murmur.types.ComponentOperator;
+import io.cloudchaser.murmur.types.ComponentShape;
+import io.cloudchaser.murmur.types.IndexableType;
+import io.cloudchaser.murmur.types.InterfaceView;
 import io.cloudchaser.murmur.types.InvocationDelegate;
 import io.cloudchaser.murmur.types.InvokableType;
 import io.cloudchaser.murmur.types.JavaClass;
@@ -43,8 +49,11 @@ import io.cloudchaser.murmur.types.MurmurDecimal;
 import io.cloudchaser.murmur.types.MurmurFunction;
 import io.cloudchaser.murmur.types.MurmurInstance;
 import io.cloudchaser.murmur.types.MurmurInteger;
+import io.cloudchaser.murmur.types.MurmurInterface;
+import io.cloudchaser.murmur.types.MurmurInterface.InterfaceFunction;
 import io.cloudchaser.murmur.types.MurmurNull;
 import io.cloudchaser.murmur.types.MurmurObject;
+import io.cloudchaser.murmur.types.MurmurOperator;
 import io.cloudchaser.murmur.types.MurmurReturn;
 import io.cloudchaser.murmur.types.MurmurString;
 import io.cloudchaser.murmur.types.MurmurVoid;
@@ -53,12 +62,19 @@ import io.cloudchaser.murmur.types.ReferenceType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+import org.antlr.v4.runtime.tree.TerminalNode;
 
 /**
  *
@@ -80,30 +96,104 @@ public class MurmurASTVisitor
 	private final Deque<InvokableType> callStack =
 			new LinkedList<>();
 	
+	/**
+	 * Speculation and deoptimization state.
+	 */
+	private final Deoptimizer deoptimizer = new Deoptimizer();
+	
+	/**
+	 * Dead code and constant clause information.
+	 */
+	private final DeadCodeEliminator eliminator;
+	
+	/**
+	 * Non-escaping array information.
+	 */
+	private final EscapeAnalyzer escapes;
+	
+	/**
+	 * Field slot caches for member expressions.
+	 */
+	private final ParseTreeProperty<InlineCache> fieldCaches =
+			new ParseTreeProperty<>();
+	
+	/**
+	 * Method table caches for method call expressions.
+	 */
+	private final ParseTreeProperty<InlineCache> methodCaches =
+			new ParseTreeProperty<>();
+	
 	/**
 	 * The interpreter invocation delegate.
 	 */
-	private final InvocationDelegate delegate =
-	(local, function) -> {
-		try {
-			// Step into the local context.
-			context.push(local);
-			callStack.push(function);
-			
-			// Execute the function.
-			MurmurObject result = visitBlock(function.getBody());
+	private final InvocationDelegate delegate = new InvocationDelegate() {
+		
+		@Override
+		public MurmurObject invokeFunction(SymbolContext local, MurmurFunction function) {
+			try {
+				// Step into the local context.
+				context.push(local);
+				callStack.push(function);
+				deoptimizer.enter(function.getBody());
 
-			// Step out of the context.
-			callStack.pop();
-			context.pop();
-			return result;
-		} catch(MurmurError err) {
-			// Attach call stack to error.
-			err.setCallStack(callStack);
-			throw err;
+				// Execute the function.
+				MurmurObject result = visitBlock(function.getBody());
+
+				// Step out of the context.
+				callStack.pop();
+				context.pop();
+				return result;
+			} catch(MurmurError err) {
+				// Attach call stack to error.
+				err.setCallStack(callStack);
+				throw err;
+			}
+		}
+		
+		@Override
+		public boolean isConcurrent(MurmurObject callee) {
+			return callee instanceof MurmurFunction &&
+					PurityAnalyzer.isPure((MurmurFunction)callee);
 		}
+		
+		@Override
+		public boolean canFork() {
+			return true;
+		}
+		
+		@Override
+		public InvocationDelegate fork() {
+			return new MurmurASTVisitor(MurmurASTVisitor.this).delegate;
+		}
+		
 	};
 	
+	public MurmurASTVisitor() {
+		eliminator = new DeadCodeEliminator();
+		escapes = new EscapeAnalyzer();
+	}
+	
+	/**
+	 * Creates a visitor for running functions on another thread. The
+	 * visitor shares the unit's analysis results with its parent, but has
+	 * its own context and call stacks, speculation state and caches.
+	 * 
+	 * @param parent The visitor being forked.
+	 */
+	private MurmurASTVisitor(MurmurASTVisitor parent) {
+		eliminator = parent.eliminator;
+		escapes = parent.escapes;
+	}
+	
+	/**
+	 * Gets the interpreter's speculation and deoptimization state.
+	 * 
+	 * @return The deoptimizer.
+	 */
+	Deoptimizer getDeoptimizer() {
+		return deoptimizer;
+	}
+	
 	/**
 	 * Removes symbol binding from a murmur value, if present.
 	 * 
@@ -146,6 +236,10 @@ public class MurmurASTVisitor
 
 	@Override
 	public MurmurObject visitCompilationUnit(MurmurParser.CompilationUnitContext ctx) {
+		// Prune dead code, and find non-escaping arrays.
+		eliminator.eliminate(ctx);
+		escapes.analyze(ctx);
+		
 		// Push initial context.
 		context.push(new MurmurBaseContext());
 		
@@ -159,12 +253,25 @@ public class MurmurASTVisitor
 
 	@Override
 	public MurmurObject visitStatement(MurmurParser.StatementContext ctx) {
-		if(ctx.keywordStatement() != null) {
-			return visitKeywordStatement(ctx.keywordStatement());
-		} else if(ctx.typeStatement() != null) {
-			return visitTypeStatement(ctx.typeStatement());
-		} else {
-			return visitExpression(ctx.expression());
+		try {
+			if(ctx.keywordStatement() != null) {
+				return visitKeywordStatement(ctx.keywordStatement());
+			} else if(ctx.typeStatement() != null) {
+				return visitTypeStatement(ctx.typeStatement());
+			} else if(ctx.iTypeStatement() != null) {
+				return visitITypeStatement(ctx.iTypeStatement());
+			} else {
+				return visitExpression(ctx.expression());
+			}
+		} catch(MurmurError err) {
+			// Attach the statement to errors raised without a line.
+			if(err.getLineNumber() == 0) {
+				String detail = err.getLineText();
+				err.setLineNumber(ctx.start.getLine());
+				err.setLineText(getOriginalText(ctx) +
+						(detail != null ? detail : ""));
+			}
+			throw err;
 		}
 	}
 	
@@ -176,23 +283,27 @@ public class MurmurASTVisitor
 		Symbol symbol = context.peek().getSymbol("this");
 		MurmurInstance instance = (MurmurInstance)symbol.getValue();
 		
-		ctx.identifierList().Identifier()
-				.stream().forEach((identifier) -> {
-			String name = identifier.getText();
-			MurmurObject target = instance.getMember(name);
+		// Lookup precomputed slots, if this is in the constructor.
+		List<TerminalNode> names = ctx.identifierList().Identifier();
+		int[] slots = instance.getComponentType()
+				.getConstructorPlan().getBindings(ctx);
+		
+		for(int idx = 0; idx < names.size(); idx++) {
+			String name = names.get(idx).getText();
+			int slot = slots != null ? slots[idx] :
+					instance.getShape().getSlot(name);
 			Symbol source = context.peek().getLocal(name);
 			
 			// Check that the symbol exists.
-			if(source == null || target == null ||
-					!(target instanceof Symbol)) {
+			if(source == null || slot < 0) {
 				throw MurmurError.create(ctx.start.getLine(),
 						getOriginalText(ctx) + "\t(Not found: " + name + ")",
 						MurmurError.SYMBOL_NOT_FOUND);
 			}
 			
-			// Bind the symbol, by name.
-			((Symbol)target).setValue(source.getValue());
-		});
+			// Bind the field, by slot.
+			instance.setField(slot, source.getValue());
+		}
 		
 		// Return void value.
 		return MurmurVoid.VOID;
@@ -215,6 +326,13 @@ public class MurmurASTVisitor
 	
 	public MurmurObject visitLetInitializerList(MurmurParser.InitializerListContext ctx) {
 		ctx.initializerElement().stream().forEach((element) -> {
+			// Check for a scalar replaced array.
+			String[] slots = escapes.getAllocation(element);
+			if(slots != null) {
+				visitScalarReplacedArray(element.expression(), slots);
+				return;
+			}
+			
 			String name = element.Identifier().getText();
 			MurmurObject value = visitExpression(element.expression());
 			
@@ -233,6 +351,19 @@ public class MurmurASTVisitor
 		return MurmurVoid.VOID;
 	}
 	
+	/**
+	 * Binds the elements of a non-escaping array directly to the frame.
+	 * 
+	 * @param ctx The array value expression.
+	 * @param slots The slot names for each element.
+	 */
+	public void visitScalarReplacedArray(MurmurParser.ExpressionContext ctx, String[] slots) {
+		List<MurmurObject> elements = visitArrayInitializerList(ctx.expressionList());
+		for(int idx = 0; idx < slots.length; idx++) {
+			context.peek().addSymbol(new LetSymbol(slots[idx], elements.get(idx)));
+		}
+	}
+	
 	public MurmurObject visitLetStatement(MurmurParser.KeywordStatementContext ctx) {
 		// Let with an initializer list.
 		if(ctx.initializerList() != null) {
@@ -287,21 +418,60 @@ public class MurmurASTVisitor
 	/* - Interfaces  - */
 	/* - - - - - - - - */
 	
-	public MurmurObject visitITypeFunction(MurmurParser.ITypeElementContext ctx) {
-		// TODO
-		return null;
+	public MurmurInterface.InterfaceFunction visitITypeFunction(MurmurParser.ITypeElementContext ctx) {
+		String name = ctx.name.getText();
+		List<String> parameters = visitLambdaParameterList(ctx.identifierList());
+		return new InterfaceFunction(name, parameters.size());
 	}
 
 	@Override
-	public MurmurObject visitITypeElement(MurmurParser.ITypeElementContext ctx) {
-		// TODO
-		return null;
+	public MurmurInterface.InterfaceFunction visitITypeElement(MurmurParser.ITypeElementContext ctx) {
+		// Interfaces only declare functions.
+		return visitITypeFunction(ctx);
+	}
+	
+	public List<MurmurInterface> visitITypeParents(MurmurParser.ITypeStatementContext ctx) {
+		if(ctx.parents == null) return new ArrayList<>();
+		
+		List<MurmurInterface> types = new ArrayList<>();
+		ctx.parents.stream().forEach((identifier) -> {
+			MurmurObject object = visitTypeParent(ctx, identifier);
+			
+			// Check that this is an interface type.
+			if(!(object instanceof MurmurInterface)) {
+				throw MurmurError.create(ctx.start.getLine(),
+						identifier.getText(), MurmurError.NOT_A_TYPE);
+			}
+			
+			// Add it to the list.
+			types.add((MurmurInterface)object);
+		});
+		
+		return types;
+	}
+	
+	@Override
+	public MurmurObject visitITypeStatement(MurmurParser.ITypeStatementContext ctx) {
+		String name = ctx.name.getText();
+		
+		// Build the function list.
+		List<InterfaceFunction> functions = new ArrayList<>();
+		ctx.iTypeDeclaration().iTypeElement().stream().forEach((element) ->
+				functions.add(visitITypeElement(element)));
+		
+		// Build the finished Murmur interface object.
+		MurmurObject itype = new MurmurInterface(name,
+				ctx.start.getLine(), visitITypeParents(ctx), functions);
+		context.peek().addSymbol(new LetSymbol(name, itype));
+		
+		// Return void value.
+		return MurmurVoid.VOID;
 	}
 	
 	/* - Component Types - */
 	/* - - - - - - - - - - */
 	
-	public MurmurComponent.ComponentField visitTypeField(MurmurParser.TypeElementContext ctx) {
+	public MurmurComponent.ComponentField<?> visitTypeField(MurmurParser.TypeElementContext ctx) {
 		String name = ctx.name.getText();
 		
 		// Validate field name.
@@ -311,7 +481,7 @@ public class MurmurASTVisitor
 		}
 		
 		// Create the field.
-		return new ComponentField(name);
+		return new ComponentField<>(name);
 	}
 	
 	public MurmurComponent.ComponentFunction visitTypeFunction(MurmurParser.TypeElementContext ctx) {
@@ -335,7 +505,7 @@ public class MurmurASTVisitor
 	}
 
 	@Override
-	public MurmurComponent.ComponentField visitTypeElement(MurmurParser.TypeElementContext ctx) {
+	public MurmurComponent.ComponentField<?> visitTypeElement(MurmurParser.TypeElementContext ctx) {
 		// Determine the element type.
 		if(ctx.expression() != null) {
 			return visitTypeFunction(ctx);
@@ -346,20 +516,36 @@ public class MurmurASTVisitor
 
 	@Override
 	public MurmurObject visitTypeDeclaration(MurmurParser.TypeDeclarationContext ctx) {
-		// Create a local component type.
-		MurmurComponent component = new MurmurComponent(
-				 "<local>", ctx.start.getLine(), context.peek());
-		
 		// Build component members list.
+		List<ComponentField<?>> members = new ArrayList<>();
 		if(ctx.typeElement() != null) {
-			ctx.typeElement().stream().forEach((element) -> {
-				MurmurComponent.ComponentField symbol = visitTypeElement(element);
-				component.getMembers().put(symbol.getName(), symbol);
-			});
+			ctx.typeElement().stream().forEach((element) ->
+					members.add(visitTypeElement(element)));
 		}
 		
-		// Return the component.
-		return component;
+		// Create a local component type.
+		return new MurmurComponent("<local>", ctx.start.getLine(), context.peek(),
+				Collections.emptyList(), Collections.emptyList(), members);
+	}
+	
+	/**
+	 * Resolves the type named as a parent of a type or interface.
+	 * 
+	 * @param ctx The type statement.
+	 * @param identifier The parent's name.
+	 * @return The parent type.
+	 */
+	private MurmurObject visitTypeParent(ParserRuleContext ctx, Token identifier) {
+		// Resolve type name.
+		Symbol symbol = context.peek().getSymbol(identifier.getText());
+		
+		// Check that the type exists.
+		if(symbol == null) {
+			throw MurmurError.create(ctx.start.getLine(),
+					identifier.getText(), MurmurError.SYMBOL_NOT_FOUND);
+		}
+		
+		return symbol.getValue();
 	}
 	
 	public List<MurmurComponent> visitTypeParents(MurmurParser.TypeStatementContext ctx) {
@@ -367,19 +553,14 @@ public class MurmurASTVisitor
 		
 		List<MurmurComponent> types = new ArrayList<>();
 		ctx.parents.stream().forEach((identifier) -> {
-			// Resolve component type name.
-			Symbol symbol = context.peek().getSymbol(identifier.getText());
+			MurmurObject object = visitTypeParent(ctx, identifier);
 			
-			// Check that the type exists.
-			if(symbol == null) {
+			// Check that this is a component or interface type.
+			if(object instanceof MurmurInterface) {
+				return;
+			} else if(!(object instanceof MurmurComponent)) {
 				throw MurmurError.create(ctx.start.getLine(),
-						identifier.getText(), MurmurError.SYMBOL_NOT_FOUND);
-			}
-			
-			// Check that this is a component type.
-			MurmurObject object = symbol.getValue();
-			if(object instanceof MurmurComponent) {
-				throw new UnsupportedOperationException();
+						identifier.getText(), MurmurError.NOT_A_TYPE);
 			}
 			
 			// Add it to the list.
@@ -389,17 +570,191 @@ public class MurmurASTVisitor
 		return types;
 	}
 	
+	public List<MurmurInterface> visitTypeInterfaces(MurmurParser.TypeStatementContext ctx) {
+		if(ctx.parents == null) return new ArrayList<>();
+		
+		List<MurmurInterface> types = new ArrayList<>();
+		ctx.parents.stream().forEach((identifier) -> {
+			MurmurObject object = visitTypeParent(ctx, identifier);
+			
+			// Only interface types.
+			if(object instanceof MurmurInterface) {
+				types.add((MurmurInterface)object);
+			}
+		});
+		
+		return types;
+	}
+	
+	/**
+	 * Checks that parent components don't define the same member, unless
+	 * the component itself overrides it.
+	 * 
+	 * @param ctx The type statement.
+	 * @param parents The parent components.
+	 * @param local The component's local type.
+	 */
+	public void visitMemberConflicts(MurmurParser.TypeStatementContext ctx,
+			List<MurmurComponent> parents, MurmurComponent local) {
+		Map<String, ComponentField<?>> inherited = new HashMap<>();
+		parents.stream().forEach((parent) -> {
+			parent.getMembers().values().stream().forEach((member) -> {
+				String name = member.getName();
+				ComponentField<?> other = inherited.putIfAbsent(name, member);
+				
+				// Members shared through a common parent don't conflict.
+				if(other != null && other != member &&
+						!local.getMembers().containsKey(name)) {
+					throw MurmurError.create(ctx.start.getLine(),
+							ctx.name.getText() + "\t(Conflict: " + name + ")",
+							MurmurError.MEMBER_CONFLICT);
+				}
+			});
+		});
+	}
+	
+	/**
+	 * Resolves the <code>super</code> references in a component's methods
+	 * against its parent components.
+	 * 
+	 * @param parents The parent components.
+	 * @param local The component's local type.
+	 */
+	public void visitSuperReferences(List<MurmurComponent> parents, MurmurComponent local) {
+		// Merge parent members, in composition order.
+		Map<String, ComponentField<?>> inherited = new HashMap<>();
+		parents.stream().forEach((parent) ->
+				inherited.putAll(parent.getMembers()));
+		
+		local.getMembers().values().stream()
+				.filter((member) -> member instanceof ComponentFunction)
+				.forEach((member) -> {
+			MurmurFunction function = ((ComponentFunction)member).getValue();
+			List<MurmurParser.ExpressionContext> references = new ArrayList<>();
+			findSuperReferences(function.getBody(), references);
+			if(references.isEmpty()) return;
+			
+			// Bind each reference to the parent method.
+			Map<ParserRuleContext, MurmurFunction> targets = new IdentityHashMap<>();
+			references.stream().forEach((reference) -> {
+				String name = reference.Identifier().getText();
+				ComponentField<?> target = inherited.get(name);
+				
+				// Check that the parent method exists.
+				if(!(target instanceof ComponentFunction)) {
+					throw MurmurError.create(reference.start.getLine(),
+							getOriginalText(reference) + "\t(Not found: " + name + ")",
+							MurmurError.SYMBOL_NOT_FOUND);
+				}
+				
+				targets.put(reference, ((ComponentFunction)target).getValue());
+			});
+			
+			function.setSuperTargets(targets);
+		});
+	}
+	
+	/**
+	 * Collects the <code>super.name</code> expressions in a parse tree,
+	 * excluding those in nested type declarations.
+	 * 
+	 * @param tree The parse tree.
+	 * @param references The list to add references to.
+	 */
+	private static void findSuperReferences(ParseTree tree,
+			List<MurmurParser.ExpressionContext> references) {
+		if(tree instanceof MurmurParser.TypeDeclarationContext) return;
+		if(tree instanceof MurmurParser.ExpressionContext &&
+				isSuperReference((MurmurParser.ExpressionContext)tree)) {
+			references.add((MurmurParser.ExpressionContext)tree);
+		}
+		
+		for(int idx = 0; idx < tree.getChildCount(); idx++) {
+			findSuperReferences(tree.getChild(idx), references);
+		}
+	}
+	
+	/**
+	 * Checks if an expression is a <code>super.name</code> reference.
+	 * 
+	 * @param ctx The expression.
+	 * @return <code>true</code> for super references.
+	 */
+	private static boolean isSuperReference(MurmurParser.ExpressionContext ctx) {
+		return ctx.operator != null && ctx.operator.getText().equals(".") &&
+				ctx.left.literal() != null &&
+				ctx.left.literal().getText().equals("super");
+	}
+	
+	/**
+	 * Gets the parent method a <code>super</code> reference resolved to,
+	 * from the innermost method on the call stack that declares it.
+	 * 
+	 * @param ctx The <code>super.name</code> member expression.
+	 * @return The parent method.
+	 */
+	private MurmurFunction getSuperTarget(MurmurParser.ExpressionContext ctx) {
+		for(InvokableType frame : callStack) {
+			if(frame instanceof MurmurFunction) {
+				MurmurFunction target = ((MurmurFunction)frame).getSuperTarget(ctx);
+				if(target != null) return target;
+			}
+		}
+		
+		// Not inside a component method.
+		throw MurmurError.create(ctx.start.getLine(), getOriginalText(ctx) +
+				"\t(Not found: " + ctx.Identifier().getText() + ")",
+				MurmurError.SYMBOL_NOT_FOUND);
+	}
+	
+	/**
+	 * Gets the instance the current method was invoked on.
+	 * 
+	 * @param ctx The expression requiring a receiver.
+	 * @return The receiver instance.
+	 */
+	private MurmurInstance getReceiver(ParserRuleContext ctx) {
+		Symbol symbol = context.peek().getSymbol("this");
+		
+		// Check that there is a 'this' defined.
+		if(symbol == null || !(symbol.getValue() instanceof MurmurInstance)) {
+			throw MurmurError.create(ctx.start.getLine(), getOriginalText(ctx) +
+					"\t(Not found: this)", MurmurError.SYMBOL_NOT_FOUND);
+		}
+		
+		return (MurmurInstance)symbol.getValue();
+	}
+	
 	@Override
 	public MurmurObject visitTypeStatement(MurmurParser.TypeStatementContext ctx) {
 		String name = ctx.name.getText();
 		
 		// Visit parent and local types.
 		List<MurmurComponent> types = visitTypeParents(ctx);
-		types.add((MurmurComponent)visitTypeDeclaration(ctx.typeDeclaration()));
+		List<MurmurInterface> interfaces = visitTypeInterfaces(ctx);
+		MurmurComponent local = (MurmurComponent)visitTypeDeclaration(ctx.typeDeclaration());
+		visitMemberConflicts(ctx, types, local);
+		visitSuperReferences(types, local);
+		types.add(local);
 		
 		// Build the finished Murmur component object.
-		MurmurObject component = new MurmurComponent(
-				name, ctx.start.getLine(), context.peek(), types);
+		MurmurComponent component = new MurmurComponent(
+				name, ctx.start.getLine(), context.peek(), types, interfaces);
+		
+		// Check that each interface is implemented, and build its itable.
+		interfaces.stream().forEach((itype) -> {
+			if(itype.getTable(component) == null) {
+				String missing = itype.getFunctions().stream()
+						.filter((function) -> !function.isImplementedBy(
+								component.getShape().getMethod(function.getName())))
+						.map(InterfaceFunction::getName)
+						.findFirst().orElse(itype.getName());
+				throw MurmurError.create(ctx.start.getLine(),
+						getOriginalText(ctx.typeDeclaration()) + "\t(Not implemented: " + missing + ")",
+						MurmurError.NOT_IMPLEMENTED);
+			}
+		});
+		
 		context.peek().addSymbol(new LetSymbol(name, component));
 		
 		// Return void value.
@@ -409,9 +764,117 @@ public class MurmurASTVisitor
 	/* - Expressions - */
 	/* - - - - - - - - */
 	
+	/**
+	 * Evaluates a binary operator, allowing the deoptimizer to speculate
+	 * on the operand types.
+	 * 
+	 * @param ctx The binary expression.
+	 * @param operator The operator being applied.
+	 * @return The result of the operation.
+	 */
+	public MurmurObject visitSpeculatedExpression(
+			MurmurParser.ExpressionContext ctx, MurmurOperator operator) {
+		MurmurObject left = desymbolize(visitExpression(ctx.left));
+		MurmurObject right = desymbolize(visitExpression(ctx.right));
+		
+		// Check for an overloaded operator.
+		if(left instanceof MurmurInstance) {
+			MurmurObject result = visitOperatorOverload((MurmurInstance)left,
+					ComponentOperator.of(operator), right);
+			if(result != null) return result;
+		} else if(right instanceof MurmurInstance) {
+			MurmurObject result = visitReflectedOverload(left,
+					ComponentOperator.of(operator), (MurmurInstance)right);
+			if(result != null) return result;
+		}
+		
+		return deoptimizer.evaluate(ctx, operator, left, right, context.peek());
+	}
+	
+	/**
+	 * Invokes an instance's overload of an operator, if it has one. An
+	 * instance which only overloads <code>==</code> gets <code>!=</code>
+	 * as its negation.
+	 * 
+	 * @param instance The left operand.
+	 * @param operator The operator being applied.
+	 * @param right The right operand.
+	 * @return The result, or <code>null</code> if it isn't overloaded.
+	 */
+	public MurmurObject visitOperatorOverload(MurmurInstance instance,
+			ComponentOperator operator, MurmurObject right) {
+		MurmurFunction method = instance.getShape().getOperator(operator);
+		
+		// Derive != from ==.
+		if(method == null && operator == ComponentOperator.NOT_EQUALS) {
+			MurmurObject result = visitOperatorOverload(
+					instance, ComponentOperator.EQUALS, right);
+			return result == null ? null : result.opLogicalNot();
+		}
+		
+		// Not overloaded.
+		if(method == null) return null;
+		
+		// Invoke the overload, with the instance as receiver.
+		return delegate.invokeFunction(method.createLocal(instance.getContext(),
+				Collections.singletonList(right)), method);
+	}
+	
+	/**
+	 * Invokes the overload of an operator for an instance on its right,
+	 * if it has one. Comparisons without one use the instance's overload
+	 * of the mirrored operator.
+	 * 
+	 * @param left The left operand.
+	 * @param operator The operator being applied.
+	 * @param instance The right operand.
+	 * @return The result, or <code>null</code> if it isn't overloaded.
+	 */
+	public MurmurObject visitReflectedOverload(MurmurObject left,
+			ComponentOperator operator, MurmurInstance instance) {
+		MurmurFunction method = instance.getShape().getReflectedOperator(operator);
+		
+		// Swap the operands of comparisons.
+		if(method == null) {
+			ComponentOperator mirror = operator.getMirror();
+			return mirror == null ? null :
+					visitOperatorOverload(instance, mirror, left);
+		}
+		
+		// Invoke the overload, with the instance as receiver.
+		return delegate.invokeFunction(method.createLocal(instance.getContext(),
+				Collections.singletonList(left)), method);
+	}
+	
+	/**
+	 * Invokes an instance's overload of a unary operator, if the operand
+	 * is an instance and has one.
+	 * 
+	 * @param operand The operand, which may be a symbol.
+	 * @param operator The operator being applied.
+	 * @return The result, or <code>null</code> if it isn't overloaded.
+	 */
+	public MurmurObject visitUnaryOverload(MurmurObject operand,
+			ComponentOperator operator) {
+		MurmurObject object = desymbolize(operand);
+		if(!(object instanceof MurmurInstance)) return null;
+		
+		// Check for an overload.
+		MurmurInstance instance = (MurmurInstance)object;
+		MurmurFunction method = instance.getShape().getOperator(operator);
+		if(method == null) return null;
+		
+		// Invoke the overload, with the instance as receiver.
+		return delegate.invokeFunction(method.createLocal(instance.getContext(),
+				Collections.emptyList()), method);
+	}
+	
 	public MurmurObject visitPositiveExpression(MurmurParser.ExpressionContext ctx) {
 		MurmurObject right = visitExpression(ctx.right);
-		return right.opPositive();
+		
+		// Check for an overloaded operator.
+		MurmurObject result = visitUnaryOverload(right, ComponentOperator.POSITIVE);
+		return result != null ? result : right.opPositive();
 	}
 	
 	public MurmurObject visitPreIncrementExpression(MurmurParser.ExpressionContext ctx) {
@@ -424,7 +887,8 @@ public class MurmurASTVisitor
 		
 		// Increment and return value.
 		Symbol symbol = (Symbol)right;
-		symbol.setValue(right.opIncrement());
+		MurmurObject result = visitUnaryOverload(symbol, ComponentOperator.INCREMENT);
+		symbol.setValue(result != null ? result : right.opIncrement());
 		return symbol.getValue();
 	}
 	
@@ -439,21 +903,21 @@ public class MurmurASTVisitor
 		// Increment and return old value.
 		Symbol symbol = (Symbol)left;
 		MurmurObject old = symbol.getValue();
-		symbol.setValue(left.opIncrement());
+		MurmurObject result = visitUnaryOverload(symbol, ComponentOperator.INCREMENT);
+		symbol.setValue(result != null ? result : left.opIncrement());
 		return old;
 	}
 	
 	public MurmurObject visitAdditionExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opPlus(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.PLUS);
 	}
 	
 	public MurmurObject visitNegativeExpression(MurmurParser.ExpressionContext ctx) {
 		MurmurObject right = visitExpression(ctx.right);
-		return right.opNegative();
+		
+		// Check for an overloaded operator.
+		MurmurObject result = visitUnaryOverload(right, ComponentOperator.NEGATIVE);
+		return result != null ? result : right.opNegative();
 	}
 	
 	public MurmurObject visitPreDecrementExpression(MurmurParser.ExpressionContext ctx) {
@@ -466,7 +930,8 @@ public class MurmurASTVisitor
 		
 		// Decrement and return value.
 		Symbol symbol = (Symbol)right;
-		symbol.setValue(right.opDecrement());
+		MurmurObject result = visitUnaryOverload(symbol, ComponentOperator.DECREMENT);
+		symbol.setValue(result != null ? result : right.opDecrement());
 		return symbol.getValue();
 	}
 	
@@ -481,61 +946,41 @@ public class MurmurASTVisitor
 		// Decrement and return old value.
 		Symbol symbol = (Symbol)left;
 		MurmurObject old = symbol.getValue();
-		symbol.setValue(left.opDecrement());
+		MurmurObject result = visitUnaryOverload(symbol, ComponentOperator.DECREMENT);
+		symbol.setValue(result != null ? result : left.opDecrement());
 		return old;
 	}
 	
 	public MurmurObject visitSubtractionExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opMinus(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.MINUS);
 	}
 	
 	public MurmurObject visitMultiplicationExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opMultiply(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.MULTIPLY);
 	}
 	
 	public MurmurObject visitDivisionExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opDivide(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.DIVIDE);
 	}
 	
 	public MurmurObject visitModuloExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opModulo(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.MODULO);
 	}
 	
 	public MurmurObject visitEqualExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opEquals(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.EQUALS);
 	}
 	
 	public MurmurObject visitNotEqualExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opNotEquals(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.NOT_EQUALS);
 	}
 	
 	public MurmurObject visitLogicalNotExpression(MurmurParser.ExpressionContext ctx) {
 		MurmurObject right = visitExpression(ctx.right);
-		return right.opLogicalNot();
+		
+		// Check for an overloaded operator.
+		MurmurObject result = visitUnaryOverload(right, ComponentOperator.LOGICAL_NOT);
+		return result != null ? result : right.opLogicalNot();
 	}
 	
 	public MurmurObject visitLogicalAndExpression(MurmurParser.ExpressionContext ctx) {
@@ -556,7 +1001,10 @@ public class MurmurASTVisitor
 	
 	public MurmurObject visitBinaryNotExpression(MurmurParser.ExpressionContext ctx) {
 		MurmurObject right = visitExpression(ctx.right);
-		return right.opBitNot();
+		
+		// Check for an overloaded operator.
+		MurmurObject result = visitUnaryOverload(right, ComponentOperator.BIT_NOT);
+		return result != null ? result : right.opBitNot();
 	}
 	
 	public MurmurObject visitBinaryAndExpression(MurmurParser.ExpressionContext ctx) {
@@ -584,35 +1032,19 @@ public class MurmurASTVisitor
 	}
 	
 	public MurmurObject visitLessThanExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opLessThan(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.LESS_THAN);
 	}
 	
 	public MurmurObject visitGreaterThanExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opGreaterThan(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.GREATER_THAN);
 	}
 	
 	public MurmurObject visitLessOrEqualExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opLessOrEqual(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.LESS_OR_EQUAL);
 	}
 	
 	public MurmurObject visitGreaterOrEqualExpression(MurmurParser.ExpressionContext ctx) {
-		MurmurObject left = visitExpression(ctx.left);
-		MurmurObject right = visitExpression(ctx.right);
-		
-		// Dereference symbols.
-		return left.opGreaterOrEqual(desymbolize(right));
+		return visitSpeculatedExpression(ctx, MurmurOperator.GREATER_OR_EQUAL);
 	}
 	
 	public MurmurObject visitShiftLeftExpression(MurmurParser.ExpressionContext ctx) {
@@ -654,13 +1086,61 @@ public class MurmurASTVisitor
 		MurmurObject left = visitExpression(ctx.left);
 		MurmurObject right = visitExpression(ctx.right);
 		
+		// Check for an overloaded operator.
+		MurmurObject object = desymbolize(left);
+		if(object instanceof MurmurInstance) {
+			MurmurObject result = visitOperatorOverload((MurmurInstance)object,
+					ComponentOperator.CONCAT, desymbolize(right));
+			if(result != null) return result;
+		} else if(desymbolize(right) instanceof MurmurInstance) {
+			MurmurObject result = visitReflectedOverload(object,
+					ComponentOperator.CONCAT, (MurmurInstance)desymbolize(right));
+			if(result != null) return result;
+		}
+		
 		// Dereference symbols.
 		return left.opConcat(desymbolize(right));
 	}
 	
 	public MurmurObject visitArrayIndexExpression(MurmurParser.ExpressionContext ctx) {
+		// Check for an index into a scalar replaced array.
+		String slot = escapes.getAccess(ctx);
+		if(slot != null) {
+			Symbol symbol = context.peek().getSymbol(slot);
+			
+			// Check that the symbol exists.
+			if(symbol == null) {
+				throw MurmurError.create(ctx.start.getLine(),
+						getOriginalText(ctx) + "\t(Not found: " + ctx.left.getText() + ")",
+						MurmurError.SYMBOL_NOT_FOUND);
+			}
+			
+			return symbol;
+		}
+		
 		MurmurObject left = visitExpression(ctx.left);
+		MurmurObject object = desymbolize(left);
+		
+		// Check for a slice of an array.
+		if(object instanceof MurmurArray && isSetNotation(ctx.index)) {
+			// Open bounds extend to the ends of the array.
+			long from = visitRangeBound(ctx.index.left, 0);
+			long to = visitRangeBound(ctx.index.right, -1);
+			return ((MurmurArray)object).slice(from, to);
+		}
+		
+		// Check for an overloaded operator.
 		MurmurObject index = visitExpression(ctx.index);
+		if(object instanceof MurmurInstance) {
+			MurmurObject result = visitOperatorOverload((MurmurInstance)object,
+					ComponentOperator.INDEX, desymbolize(index));
+			if(result != null) return result;
+		}
+		
+		// Check for an element being assigned.
+		if(object instanceof IndexableType && isAssignmentTarget(ctx)) {
+			return new ElementSymbol((IndexableType)object, desymbolize(index));
+		}
 		
 		// Dereference symbols.
 		return left.opIndex(desymbolize(index));
@@ -704,8 +1184,167 @@ public class MurmurASTVisitor
 	}
 	
 	public MurmurObject visitFunctionCallExpression(MurmurParser.ExpressionContext ctx) {
+		// Check for a method call.
+		if(ctx.left.operator != null &&
+				ctx.left.operator.getText().equals(".")) {
+			return visitMethodCallExpression(ctx);
+		}
+		
 		MurmurObject left = desymbolize(visitExpression(ctx.left));
 		List<MurmurObject> args = visitFunctionArguments(ctx.expressionList());
+		return visitInvocation(left, args);
+	}
+	
+	/**
+	 * Calls a member of a value. Instance methods are looked up in the
+	 * component's method table and invoked with the instance as receiver,
+	 * without binding a copy of the method.
+	 * 
+	 * @param ctx The function call expression.
+	 * @return The result of the call.
+	 */
+	public MurmurObject visitMethodCallExpression(MurmurParser.ExpressionContext ctx) {
+		MurmurParser.ExpressionContext member = ctx.left;
+		String name = member.Identifier().getText();
+		
+		// Check for a parent method call.
+		if(isSuperReference(member)) {
+			MurmurFunction method = getSuperTarget(member);
+			MurmurInstance instance = getReceiver(member);
+			List<MurmurObject> args = visitFunctionArguments(ctx.expressionList());
+			return delegate.invokeFunction(method.createLocal(
+					instance.getContext(), args), method);
+		}
+		
+		MurmurObject receiver = desymbolize(visitExpression(member.left));
+		
+		// Check for an interface method.
+		if(receiver instanceof InterfaceView) {
+			InterfaceView view = (InterfaceView)receiver;
+			MurmurFunction method = getMethod(member, view, name);
+			List<MurmurObject> args = visitFunctionArguments(ctx.expressionList());
+			return delegate.invokeFunction(method.createLocal(
+					view.getInstance().getContext(), args), method);
+		}
+		
+		// Check for an instance method.
+		if(receiver instanceof MurmurInstance) {
+			MurmurInstance instance = (MurmurInstance)receiver;
+			MurmurFunction method = getMethod(member, instance, name);
+			
+			if(method != null) {
+				List<MurmurObject> args = visitFunctionArguments(ctx.expressionList());
+				return delegate.invokeFunction(method.createLocal(
+						instance.getContext(), args), method);
+			}
+			
+			// Not a method, so call the field value.
+			MurmurObject left = desymbolize(visitFieldExpression(member, instance, name));
+			List<MurmurObject> args = visitFunctionArguments(ctx.expressionList());
+			return visitInvocation(left, args);
+		}
+		
+		// Fuse array pipeline calls with the pipeline call that follows.
+		MurmurObject left = desymbolize(receiver instanceof MurmurArray && isPipelined(ctx) ?
+				((MurmurArray)receiver).getPipelineMember(name) : receiver.getMember(name));
+		List<MurmurObject> args = visitFunctionArguments(ctx.expressionList());
+		return visitInvocation(left, args);
+	}
+	
+	/**
+	 * Checks if a call's result is only the receiver of an array pipeline
+	 * call, as in <code>a.map(f).filter(g)</code>. The result can't be read
+	 * anywhere else, so the two calls can be fused.
+	 * 
+	 * @param ctx The function call expression.
+	 * @return <code>true</code> if the call is followed by a pipeline call.
+	 */
+	private static boolean isPipelined(MurmurParser.ExpressionContext ctx) {
+		// Check for a member of the result.
+		if(!(ctx.parent instanceof MurmurParser.ExpressionContext)) return false;
+		MurmurParser.ExpressionContext member = (MurmurParser.ExpressionContext)ctx.parent;
+		if(member.left != ctx || member.operator == null ||
+				!member.operator.getText().equals(".")) return false;
+		
+		// Check that the member is called immediately.
+		if(!(member.parent instanceof MurmurParser.ExpressionContext)) return false;
+		MurmurParser.ExpressionContext call = (MurmurParser.ExpressionContext)member.parent;
+		if(call.left != member || call.operator == null ||
+				!call.operator.getText().equals("(")) return false;
+		
+		return MurmurArray.isPipelineMember(member.Identifier().getText());
+	}
+	
+	/**
+	 * Looks up an instance method, caching the method table slot for the
+	 * instance's shape.
+	 * 
+	 * @param ctx The member expression.
+	 * @param instance The receiver instance.
+	 * @param name The method name.
+	 * @return The method, or <code>null</code> if there's no such method.
+	 */
+	private MurmurFunction getMethod(MurmurParser.ExpressionContext ctx,
+			MurmurInstance instance, String name) {
+		InlineCache cache = methodCaches.get(ctx);
+		if(cache == null) {
+			cache = new InlineCache();
+			methodCaches.put(ctx, cache);
+		}
+		
+		// Lookup the slot on a cache miss.
+		ComponentShape shape = instance.getShape();
+		if(!cache.matches(shape)) {
+			int slot = shape.getMethodSlot(name);
+			if(slot < 0) return null;
+			cache.update(shape.getMethodOwner(name), slot);
+		}
+		
+		return shape.getMethod(cache.getSlot());
+	}
+	
+	/**
+	 * Looks up an interface method, caching the itable slot for the
+	 * view's interface.
+	 * 
+	 * @param ctx The member expression.
+	 * @param view The receiver interface view.
+	 * @param name The method name.
+	 * @return The method.
+	 */
+	private MurmurFunction getMethod(MurmurParser.ExpressionContext ctx,
+			InterfaceView view, String name) {
+		InlineCache cache = methodCaches.get(ctx);
+		if(cache == null) {
+			cache = new InlineCache();
+			methodCaches.put(ctx, cache);
+		}
+		
+		// Lookup the slot on a cache miss.
+		MurmurInterface itype = view.getInterface();
+		if(!cache.matches(itype)) {
+			int slot = itype.getSlot(name);
+			
+			// Check that the function exists.
+			if(slot < 0) {
+				throw MurmurError.create(ctx.start.getLine(),
+						getOriginalText(ctx) + "\t(Not found: " + name + ")",
+						MurmurError.SYMBOL_NOT_FOUND);
+			}
+			cache.update(itype, slot);
+		}
+		
+		return view.getMethod(cache.getSlot());
+	}
+	
+	/**
+	 * Invokes a value with the given arguments.
+	 * 
+	 * @param left The value being invoked.
+	 * @param args The invocation arguments.
+	 * @return The result of the invocation.
+	 */
+	private MurmurObject visitInvocation(MurmurObject left, List<MurmurObject> args) {
 		
 		// Check that this is an invokable type.
 		if(left instanceof JavaInvokableType) {
@@ -744,6 +1383,25 @@ public class MurmurASTVisitor
 			throw new UnsupportedOperationException();
 		}
 		
+		// Check for an overloaded operator, then assign its result.
+		if(left instanceof Symbol && ((Symbol)left).getValue() instanceof MurmurInstance) {
+			MurmurInstance instance = (MurmurInstance)((Symbol)left).getValue();
+			ComponentOperator operator = ComponentOperator.ofAssignment(ctx.operator.getText());
+			MurmurObject result = operator == null ? null :
+					visitOperatorOverload(instance, operator, right);
+			
+			// Check that the operator is defined.
+			if(result == null) {
+				throw MurmurError.create(ctx.start.getLine(), getOriginalText(ctx) +
+						"\t(Not defined: " + instance.getComponentType().getName() + "." +
+						(operator == null ? ctx.operator.getText() : operator.methodName) + ")",
+						MurmurError.OPERATOR_NOT_DEFINED);
+			}
+			
+			((Symbol)left).setValue(result);
+			return result;
+		}
+		
 		// Invoke the relevant operator.
 		ReferenceType ref = (ReferenceType)left;
 		switch(ctx.operator.getText()) {
@@ -777,15 +1435,143 @@ public class MurmurASTVisitor
 	
 	public MurmurObject visitMemberExpression(MurmurParser.ExpressionContext ctx) {
 		String name = ctx.Identifier().getText();
+		
+		// Bind parent methods read as values.
+		if(isSuperReference(ctx)) {
+			return getSuperTarget(ctx).bind(getReceiver(ctx).getContext());
+		}
+		
 		MurmurObject left = visitExpression(ctx.left);
 		
+		// Check for an instance field.
+		MurmurObject object = desymbolize(left);
+		if(object instanceof MurmurInstance) {
+			return visitFieldExpression(ctx, (MurmurInstance)object, name);
+		}
+		
 		// Find and return the member.
 		return left.getMember(name);
 	}
 	
+	/**
+	 * Accesses an instance member, caching the field slot for the
+	 * instance's shape.
+	 * 
+	 * @param ctx The member expression.
+	 * @param instance The instance being accessed.
+	 * @param name The member name.
+	 * @return The member.
+	 */
+	public MurmurObject visitFieldExpression(MurmurParser.ExpressionContext ctx,
+			MurmurInstance instance, String name) {
+		InlineCache cache = fieldCaches.get(ctx);
+		if(cache == null) {
+			cache = new InlineCache();
+			fieldCaches.put(ctx, cache);
+		}
+		
+		// Lookup the slot on a cache miss.
+		ComponentShape shape = instance.getShape();
+		if(!cache.matches(shape)) {
+			int slot = shape.getSlot(name);
+			if(slot < 0) {
+				// Bind the method, if it's read as a value.
+				MurmurFunction method = shape.getMethod(name);
+				if(method != null) {
+					return method.bind(instance.getContext());
+				}
+				
+				// Not a field.
+				return instance.getMember(name);
+			}
+			cache.update(shape.getFieldOwner(name), slot);
+		}
+		
+		// Return a reference to the field, if it's being assigned.
+		if(isAssignmentTarget(ctx)) {
+			return new FieldSymbol(name, instance, cache.getSlot());
+		}
+
+		// Return the field's value.
+		return instance.getField(cache.getSlot());
+	}
+	
+	/**
+	 * Checks if an expression is written to by its parent, as the target
+	 * of an assignment, compound assignment, increment or decrement.
+	 * 
+	 * @param ctx The expression.
+	 * @return <code>true</code> if the expression is an lvalue.
+	 */
+	private static boolean isAssignmentTarget(MurmurParser.ExpressionContext ctx) {
+		if(!(ctx.parent instanceof MurmurParser.ExpressionContext)) return false;
+		MurmurParser.ExpressionContext parent = (MurmurParser.ExpressionContext)ctx.parent;
+		if(parent.operator == null) return false;
+		
+		switch(parent.operator.getText()) {
+			case "++":
+			case "--":
+				return parent.left == ctx || parent.right == ctx;
+			case "=":
+			case "+=":
+			case "-=":
+			case "*=":
+			case "/=":
+			case "%=":
+			case "&=":
+			case "^=":
+			case "|=":
+			case "<<=":
+			case ">>=":
+			case "~=":
+				return parent.left == ctx;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Checks if an expression is in set notation.
+	 * 
+	 * @param ctx The expression.
+	 * @return <code>true</code> for an expression of the form <code>[a .. b]</code>.
+	 */
+	private static boolean isSetNotation(MurmurParser.ExpressionContext ctx) {
+		return ctx.operator != null && ctx.operator.getText().equals("..");
+	}
+	
+	/**
+	 * Evaluates a bound of a set notation expression.
+	 * 
+	 * @param ctx The bound expression, or null if open.
+	 * @param open The value of an open bound.
+	 * @return The bound value.
+	 */
+	public long visitRangeBound(MurmurParser.ExpressionContext ctx, long open) {
+		if(ctx == null) return open;
+		MurmurObject bound = desymbolize(visitExpression(ctx));
+		
+		// Check that the bound is an integer.
+		if(!(bound instanceof MurmurInteger)) {
+			throw MurmurError.create(ctx.start.getLine(),
+					getOriginalText(getVisibleView((ParserRuleContext)ctx.parent)),
+					MurmurError.NOT_AN_INTEGER);
+		}
+		
+		return ((MurmurInteger)bound).getValue();
+	}
+	
 	public MurmurObject visitSetNotationExpression(MurmurParser.ExpressionContext ctx) {
-		// TODO
-		return null;
+		// Check that the range is closed.
+		if(ctx.right == null) {
+			throw MurmurError.create(ctx.start.getLine(),
+					getOriginalText(ctx), MurmurError.OPEN_RANGE);
+		}
+		
+		// Create an inclusive range, starting from zero by default.
+		long first = visitRangeBound(ctx.left, 0);
+		long last = visitRangeBound(ctx.right, 0);
+		return MurmurArray.range(first, last);
 	}
 	
 	public MurmurObject visitIdentifierExpression(MurmurParser.ExpressionContext ctx) {
@@ -1151,6 +1937,14 @@ public class MurmurASTVisitor
 			return symbol;
 		}
 		
+		// 'super' literal.
+		if(ctx.getText().equals("super")) {
+			// Only valid as super.name, within a component method.
+			throw MurmurError.create(ctx.start.getLine(),
+					getOriginalText(getVisibleView((ParserRuleContext)ctx.parent)),
+					MurmurError.NOT_A_VALUE);
+		}
+		
 		// Unknown literal type.
 		throw MurmurError.create(ctx.start.getLine(),
 				ctx.getText(), MurmurError.INTERNAL_ERROR);
@@ -24,8 +24,10 @@
 
 package io.cloudchaser.murmur;
 
+import io.cloudchaser.murmur.symbol.LetSymbol;
 import io.cloudchaser.murmur.symbol.Symbol;
 import io.cloudchaser.murmur.symbol.SymbolContext;
+import io.cloudchaser.murmur.types.MurmurSequence;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -42,6 +44,9 @@ class MurmurBaseContext implements SymbolContext {
 
 	public MurmurBaseContext() {
 		symbols = new HashMap<>();
+		
+		// Built-in values.
+		addSymbol(new LetSymbol("Sequence", MurmurSequence.FACTORY));
 	}
 
 	@Override
@@ -44,6 +44,28 @@ public class MurmurError extends Error {
 			"Murmur expected a function or lambda here, but got something else.";
 	public static final String SYMBOL_NOT_FOUND =
 			"Murmur couldn't find the referenced symbol in this context.";
+	public static final String NOT_A_TYPE =
+			"Murmur expected a type or interface here, but got something else.";
+	public static final String NOT_IMPLEMENTED =
+			"This type doesn't implement every function of its interface.";
+	public static final String MEMBER_CONFLICT =
+			"More than one parent of this type defines the same member.";
+	public static final String NOT_AN_INTEGER =
+			"Murmur expected an integer value here, but got something else.";
+	public static final String OPEN_RANGE =
+			"This range needs both of its bounds to be used as a value.";
+	public static final String OUT_OF_RANGE =
+			"This integer is outside the range Murmur accepts here.";
+	public static final String NOT_NUMERIC =
+			"Murmur expected a number or an array of numbers here, but got something else.";
+	public static final String LENGTH_MISMATCH =
+			"These arrays need to be the same length.";
+	public static final String FROZEN =
+			"This value has been frozen, and can't be modified.";
+	public static final String RELEASED =
+			"This array's storage has been released, and can't be used.";
+	public static final String OPERATOR_NOT_DEFINED =
+			"This operator isn't defined for the type it was applied to.";
 	
 	public static final String JAVA_CLASS_NOT_FOUND =
 			"Murmur couldn't find the referenced Java class or type.";
@@ -0,0 +1,170 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur;
+
+import io.cloudchaser.murmur.Deoptimizer.SiteState;
+import io.cloudchaser.murmur.Deoptimizer.SpeculationSite;
+import io.cloudchaser.murmur.Deoptimizer.UnitProfile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes the deoptimizer's type feedback and hotness counters,
+ * so that later runs of the same source can skip warmup.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class MurmurProfile {
+	
+	/**
+	 * The profile file header.
+	 */
+	private static final String HEADER = "# Murmur profile";
+	
+	private static final Logger LOGGER =
+			Logger.getLogger(MurmurProfile.class.getName());
+	
+	private MurmurProfile() {
+	}
+	
+	/**
+	 * Computes the hash a profile is keyed by.
+	 * 
+	 * @param source The raw source of the script.
+	 * @return A hex encoded SHA-256 hash.
+	 */
+	public static String hash(byte[] source) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			StringBuilder builder = new StringBuilder();
+			for(byte b : digest.digest(source)) {
+				builder.append(String.format("%02x", b));
+			}
+			return builder.toString();
+		} catch(NoSuchAlgorithmException ex) {
+			// Every Java platform provides SHA-256.
+			throw new MurmurError(ex);
+		}
+	}
+	
+	/**
+	 * Loads a profile into the deoptimizer, if it matches the source.
+	 * 
+	 * @param file The profile file.
+	 * @param hash The hash of the source being run.
+	 * @param deoptimizer The deoptimizer to seed.
+	 * @return <code>true</code> if the profile was loaded.
+	 * @throws IOException If the profile can't be read.
+	 */
+	public static boolean load(Path file, String hash,
+			Deoptimizer deoptimizer) throws IOException {
+		try(BufferedReader reader = Files.newBufferedReader(
+				file, StandardCharsets.UTF_8)) {
+			// Check the header.
+			if(!HEADER.equals(reader.readLine())) {
+				LOGGER.log(Level.WARNING, "Not a Murmur profile: {0}", file);
+				return false;
+			}
+			
+			// Check that the profile is for this source.
+			String line = reader.readLine();
+			if(line == null || !line.equals("source " + hash)) {
+				LOGGER.log(Level.INFO, "Profile {0} is for a different source; ignoring.", file);
+				return false;
+			}
+			
+			while((line = reader.readLine()) != null) {
+				String[] parts = line.split(" ");
+				try {
+					switch(parts[0]) {
+						case "unit":
+							// unit <key> <invocations> <executions> <deopts> <disabled>
+							deoptimizer.seedUnit(Integer.parseInt(parts[1]),
+									Integer.parseInt(parts[2]),
+									Integer.parseInt(parts[3]),
+									Integer.parseInt(parts[4]),
+									Boolean.parseBoolean(parts[5]));
+							break;
+						case "site":
+							// site <key> <state> <deopts>
+							deoptimizer.seedSite(Integer.parseInt(parts[1]),
+									SiteState.valueOf(parts[2]),
+									Integer.parseInt(parts[3]));
+							break;
+						default:
+							// Unknown entry; skip.
+							break;
+					}
+				} catch(IllegalArgumentException |
+						ArrayIndexOutOfBoundsException ex) {
+					LOGGER.log(Level.WARNING, "Malformed profile entry: {0}", line);
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Saves the deoptimizer's current profile.
+	 * 
+	 * @param file The profile file.
+	 * @param hash The hash of the source that was run.
+	 * @param deoptimizer The deoptimizer to save.
+	 * @throws IOException If the profile can't be written.
+	 */
+	public static void save(Path file, String hash,
+			Deoptimizer deoptimizer) throws IOException {
+		try(PrintWriter writer = new PrintWriter(Files.newBufferedWriter(
+				file, StandardCharsets.UTF_8))) {
+			writer.println(HEADER);
+			writer.println("source " + hash);
+			
+			for(UnitProfile unit : deoptimizer.getUnits()) {
+				writer.printf("unit %d %d %d %d %b%n", unit.getKey(),
+						unit.getInvocations(), unit.getExecutions(),
+						unit.getDeopts(), unit.isDisabled());
+			}
+			
+			for(SpeculationSite site : deoptimizer.getSites()) {
+				// Only speculated sites are worth keeping.
+				if(site.getState() == SiteState.UNINITIALIZED) continue;
+				writer.printf("site %d %s %d%n", site.getKey(),
+						site.getState().name(), site.getDeopts());
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,278 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur;
+
+import io.cloudchaser.murmur.parser.MurmurParser;
+import io.cloudchaser.murmur.symbol.Symbol;
+import io.cloudchaser.murmur.types.MurmurFunction;
+import io.cloudchaser.murmur.types.MurmurSequence;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * Checks whether a function can be run on several threads at once.
+ * <p>
+ * A function qualifies when its body only assigns to its own parameters
+ * and let bindings, or those of the lambdas nested in it. Assignments to
+ * captured names, fields or elements, and field self-assignments, all
+ * disqualify it.
+ * <p>
+ * Calls are followed when the callee is a captured name bound to a
+ * function, which must then qualify too. Any other call, including method
+ * calls, native methods, calls to local names and instantiation,
+ * disqualifies the function, since what it runs can't be known ahead of
+ * time. Native methods are bound to the value they were read from, and
+ * may write to it or compute it through its creator's delegate.
+ * <p>
+ * Captured sequences disqualify the function too, since their values are
+ * computed when read, on the thread that created them. Overloaded
+ * operators are assumed not to write captured state.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+class PurityAnalyzer {
+	
+	/**
+	 * The function being analyzed, whose context captured names resolve in.
+	 */
+	private final MurmurFunction function;
+	
+	/**
+	 * The functions analyzed so far. Recursive calls are assumed to
+	 * qualify, and are decided by the outermost analysis.
+	 */
+	private final Set<MurmurFunction> visited;
+	
+	private PurityAnalyzer(MurmurFunction function, Set<MurmurFunction> visited) {
+		this.function = function;
+		this.visited = visited;
+	}
+	
+	/**
+	 * Checks if a function, and any function it calls, writes to no state
+	 * it captures.
+	 * 
+	 * @param function The function to check.
+	 * @return <code>true</code> if the function is safe to run concurrently.
+	 */
+	public static boolean isPure(MurmurFunction function) {
+		return isPure(function, Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+	
+	private static boolean isPure(MurmurFunction function,
+			Set<MurmurFunction> visited) {
+		if(!visited.add(function)) return true;
+		
+		// Collect the function's own names.
+		Set<String> locals = new HashSet<>(function.getParameters());
+		collectLocals(function.getBody(), locals);
+		return new PurityAnalyzer(function, visited)
+				.isPure(function.getBody(), locals);
+	}
+	
+	/**
+	 * Collects the names declared in a function body, not including
+	 * those of lambdas nested in it.
+	 * 
+	 * @param tree The tree to search.
+	 * @param locals The set to add names to.
+	 */
+	private static void collectLocals(ParseTree tree, Set<String> locals) {
+		if(tree instanceof MurmurParser.LambdaContext) return;
+		
+		if(tree instanceof MurmurParser.KeywordStatementContext) {
+			MurmurParser.KeywordStatementContext stmt =
+					(MurmurParser.KeywordStatementContext)tree;
+			String operator = stmt.operator.getText();
+			
+			// Let bindings.
+			if(operator.equals("let") && stmt.initializerList() != null) {
+				stmt.initializerList().initializerElement().stream()
+						.forEach((element) -> locals.add(
+								element.Identifier().getText()));
+			}
+			
+			// Destructured or self-assigned names.
+			if((operator.equals("let") || operator.equals("->")) &&
+					stmt.identifierList() != null) {
+				stmt.identifierList().Identifier().stream()
+						.map(TerminalNode::getText)
+						.forEach(locals::add);
+			}
+		}
+		
+		for(int idx = 0; idx < tree.getChildCount(); idx++) {
+			collectLocals(tree.getChild(idx), locals);
+		}
+	}
+	
+	private boolean isPure(ParseTree tree, Set<String> locals) {
+		// Nested lambdas add their own names.
+		if(tree instanceof MurmurParser.LambdaContext) {
+			MurmurParser.LambdaContext lambda = (MurmurParser.LambdaContext)tree;
+			locals = new HashSet<>(locals);
+			if(lambda.identifierList() != null) {
+				for(TerminalNode name : lambda.identifierList().Identifier()) {
+					locals.add(name.getText());
+				}
+			}
+			if(lambda.block() != null) {
+				collectLocals(lambda.block(), locals);
+			}
+		}
+		
+		// Field self-assignment writes to the receiver.
+		if(tree instanceof MurmurParser.KeywordStatementContext &&
+				((MurmurParser.KeywordStatementContext)tree)
+						.operator.getText().equals("<-")) {
+			return false;
+		}
+		
+		if(tree instanceof MurmurParser.ExpressionContext) {
+			MurmurParser.ExpressionContext ctx = (MurmurParser.ExpressionContext)tree;
+			
+			// Check the values of captured names.
+			if(ctx.operator == null && ctx.Identifier() != null &&
+					!locals.contains(ctx.Identifier().getText()) &&
+					resolve(ctx.Identifier().getText()) instanceof MurmurSequence) {
+				return false;
+			}
+			
+			// Check the targets of assignments.
+			MurmurParser.ExpressionContext target = getAssignmentTarget(ctx);
+			if(target != null && (target.Identifier() == null || target.operator != null ||
+					!locals.contains(target.Identifier().getText()))) {
+				return false;
+			}
+			
+			// Check the functions called.
+			if(isCall(ctx) && !isPureCall(ctx, locals)) {
+				return false;
+			}
+		}
+		
+		for(int idx = 0; idx < tree.getChildCount(); idx++) {
+			if(!isPure(tree.getChild(idx), locals)) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks if a call only runs functions that qualify.
+	 * 
+	 * @param ctx The call expression.
+	 * @param locals The names local to the call.
+	 * @return <code>true</code> if the callee is known to qualify.
+	 */
+	private boolean isPureCall(MurmurParser.ExpressionContext ctx, Set<String> locals) {
+		// Only plain captured names can be resolved ahead of time.
+		MurmurParser.ExpressionContext callee = ctx.left;
+		if(!ctx.operator.getText().equals("(") || callee.operator != null ||
+				callee.Identifier() == null ||
+				locals.contains(callee.Identifier().getText())) {
+			return false;
+		}
+		
+		// Follow calls to functions.
+		Object value = resolve(callee.Identifier().getText());
+		return value instanceof MurmurFunction &&
+				isPure((MurmurFunction)value, visited);
+	}
+	
+	/**
+	 * Gets the value of a captured name, in the function's context.
+	 * 
+	 * @param name The captured name.
+	 * @return The value, or <code>null</code> if it can't be resolved.
+	 */
+	private Object resolve(String name) {
+		Symbol symbol = function.getContext() == null ? null :
+				function.getContext().getSymbol(name);
+		return symbol != null ? symbol.getValue() : null;
+	}
+	
+	/**
+	 * Checks if an expression runs code that isn't part of the tree, by
+	 * calling a value or instantiating a component.
+	 * 
+	 * @param ctx The expression.
+	 * @return <code>true</code> if the expression is a call.
+	 */
+	private static boolean isCall(MurmurParser.ExpressionContext ctx) {
+		if(ctx.lambda() != null) {
+			return ctx.left != null;
+		}
+		if(ctx.operator == null) return false;
+		
+		switch(ctx.operator.getText()) {
+			case "(":
+				return ctx.left != null;
+			case "new":
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Gets the expression written to by an assignment, compound
+	 * assignment, increment or decrement.
+	 * 
+	 * @param ctx The expression.
+	 * @return The target expression, or <code>null</code> if none.
+	 */
+	private static MurmurParser.ExpressionContext getAssignmentTarget(
+			MurmurParser.ExpressionContext ctx) {
+		if(ctx.operator == null) return null;
+		
+		switch(ctx.operator.getText()) {
+			case "++":
+			case "--":
+				return ctx.left != null ? ctx.left : ctx.right;
+			case "=":
+			case "+=":
+			case "-=":
+			case "*=":
+			case "/=":
+			case "%=":
+			case "&=":
+			case "^=":
+			case "|=":
+			case "<<=":
+			case ">>=":
+			case "~=":
+				return ctx.left;
+			default:
+				return null;
+		}
+	}
+	
+}
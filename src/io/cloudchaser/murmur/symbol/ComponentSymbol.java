@@ -41,6 +41,11 @@ public abstract class ComponentSymbol extends Symbol {
 		super(name, value);
 		this.parent = parent;
 	}
+	
+	protected ComponentSymbol(String name, MurmurComponent parent) {
+		super(name);
+		this.parent = parent;
+	}
 
 	public MurmurComponent getParent() {
 		return parent;
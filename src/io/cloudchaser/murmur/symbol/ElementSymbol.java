@@ -0,0 +1,65 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.symbol;
+
+import io.cloudchaser.murmur.types.IndexableType;
+import io.cloudchaser.murmur.types.MurmurObject;
+
+/**
+ * A reference to an element of an indexable value, such as an array.
+ * Reads and writes go directly to the element.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class ElementSymbol extends Symbol {
+	
+	/**
+	 * The value holding the element.
+	 */
+	private final IndexableType target;
+	
+	/**
+	 * The element's index.
+	 */
+	private final MurmurObject index;
+
+	public ElementSymbol(IndexableType target, MurmurObject index) {
+		super("[" + index.asString().getValue() + "]");
+		this.target = target;
+		this.index = index;
+	}
+
+	@Override
+	public MurmurObject getValue() {
+		return target.getElement(index);
+	}
+
+	@Override
+	public void setValue(MurmurObject value) {
+		target.setElement(index, value);
+	}
+	
+}
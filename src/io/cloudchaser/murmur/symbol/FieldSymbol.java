@@ -25,6 +25,7 @@
 package io.cloudchaser.murmur.symbol;
 
 import io.cloudchaser.murmur.types.MurmurComponent;
+import io.cloudchaser.murmur.types.MurmurInstance;
 import io.cloudchaser.murmur.types.MurmurNull;
 import io.cloudchaser.murmur.types.MurmurObject;
 
@@ -35,13 +36,53 @@ import io.cloudchaser.murmur.types.MurmurObject;
  */
 public class FieldSymbol extends ComponentSymbol {
 	
+	/**
+	 * The instance storing this field, if slot-backed.
+	 */
+	private final MurmurInstance instance;
+	
+	/**
+	 * The field's slot in the instance.
+	 */
+	private final int slot;
+	
 	public FieldSymbol(String name, MurmurComponent parent) {
-		super(name, MurmurNull.NULL, parent);
+		this(name, MurmurNull.NULL, parent);
 	}
 
 	public FieldSymbol(String name, MurmurObject value,
 			MurmurComponent parent) {
 		super(name, value, parent);
+		this.instance = null;
+		this.slot = -1;
+	}
+	
+	/**
+	 * Creates a reference to a field stored in an instance slot.
+	 * 
+	 * @param name The field name.
+	 * @param instance The instance storing the field.
+	 * @param slot The field's slot in the instance shape.
+	 */
+	public FieldSymbol(String name, MurmurInstance instance, int slot) {
+		super(name, instance.getComponentType());
+		this.instance = instance;
+		this.slot = slot;
+	}
+
+	@Override
+	public MurmurObject getValue() {
+		if(instance == null) return super.getValue();
+		return instance.getField(slot);
+	}
+
+	@Override
+	public void setValue(MurmurObject value) {
+		if(instance == null) {
+			super.setValue(value);
+		} else {
+			instance.setField(slot, value);
+		}
 	}
 	
 }
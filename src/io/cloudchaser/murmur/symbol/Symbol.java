@@ -28,6 +28,7 @@ import io.cloudchaser.murmur.types.MurmurDecimal;
 import io.cloudchaser.murmur.types.MurmurInteger;
 import io.cloudchaser.murmur.types.MurmurObject;
 import io.cloudchaser.murmur.types.MurmurString;
+import io.cloudchaser.murmur.types.MurmurType;
 import io.cloudchaser.murmur.types.ReferenceType;
 
 /**
@@ -67,251 +68,300 @@ public abstract class Symbol extends MurmurObject
 	/* - Delegates - */
 	/* - - - - - - - */
 	
+	@Override
+	public MurmurType getType() {
+		return getValue().getType();
+	}
+	
 	@Override
 	public Object toJavaObject() {
-		return value.toJavaObject();
+		return getValue().toJavaObject();
 	}
 	
 	@Override
 	public MurmurObject getMember(String name) {
-		return value.getMember(name);
+		return getValue().getMember(name);
 	}
 
 	@Override
 	public MurmurInteger asInteger() {
-		return value.asInteger();
+		return getValue().asInteger();
 	}
 
 	@Override
 	public MurmurDecimal asDecimal() {
-		return value.asDecimal();
+		return getValue().asDecimal();
 	}
 
 	@Override
 	public MurmurString asString() {
-		return value.asString();
+		return getValue().asString();
 	}
 
 	@Override
 	public MurmurObject opPositive() {
-		return value.opPositive();
+		return getValue().opPositive();
 	}
 
 	@Override
 	public MurmurObject opNegative() {
-		return value.opNegative();
+		return getValue().opNegative();
 	}
 
 	@Override
 	public MurmurObject opIncrement() {
-		return value.opIncrement();
+		return getValue().opIncrement();
 	}
 
 	@Override
 	public MurmurObject opDecrement() {
-		return value.opDecrement();
+		return getValue().opDecrement();
 	}
 
 	@Override
 	public MurmurObject opPlus(MurmurObject other) {
-		return value.opPlus(other);
+		return getValue().opPlus(other);
 	}
 
 	@Override
 	public MurmurObject opMinus(MurmurObject other) {
-		return value.opMinus(other);
+		return getValue().opMinus(other);
 	}
 
 	@Override
 	public MurmurObject opMultiply(MurmurObject other) {
-		return value.opMultiply(other);
+		return getValue().opMultiply(other);
 	}
 
 	@Override
 	public MurmurObject opDivide(MurmurObject other) {
-		return value.opDivide(other);
+		return getValue().opDivide(other);
 	}
 
 	@Override
 	public MurmurObject opModulo(MurmurObject other) {
-		return value.opModulo(other);
+		return getValue().opModulo(other);
 	}
 
 	@Override
 	public MurmurObject opShiftLeft(MurmurObject other) {
-		return value.opShiftLeft(other);
+		return getValue().opShiftLeft(other);
 	}
 
 	@Override
 	public MurmurObject opShiftRight(MurmurObject other) {
-		return value.opShiftRight(other);
+		return getValue().opShiftRight(other);
 	}
 
 	@Override
 	public MurmurObject opLessThan(MurmurObject other) {
-		return value.opLessThan(other);
+		return getValue().opLessThan(other);
 	}
 
 	@Override
 	public MurmurObject opGreaterThan(MurmurObject other) {
-		return value.opGreaterThan(other);
+		return getValue().opGreaterThan(other);
 	}
 
 	@Override
 	public MurmurObject opLessOrEqual(MurmurObject other) {
-		return value.opLessOrEqual(other);
+		return getValue().opLessOrEqual(other);
 	}
 
 	@Override
 	public MurmurObject opGreaterOrEqual(MurmurObject other) {
-		return value.opGreaterOrEqual(other);
+		return getValue().opGreaterOrEqual(other);
 	}
 
 	@Override
 	public MurmurObject opEquals(MurmurObject other) {
-		return value.opEquals(other);
+		return getValue().opEquals(other);
 	}
 
 	@Override
 	public MurmurObject opNotEquals(MurmurObject other) {
-		return value.opNotEquals(other);
+		return getValue().opNotEquals(other);
 	}
 
 	@Override
 	public MurmurObject opBitNot() {
-		return value.opBitNot();
+		return getValue().opBitNot();
 	}
 
 	@Override
 	public MurmurObject opBitAnd(MurmurObject other) {
-		return value.opBitAnd(other);
+		return getValue().opBitAnd(other);
 	}
 
 	@Override
 	public MurmurObject opBitXor(MurmurObject other) {
-		return value.opBitXor(other);
+		return getValue().opBitXor(other);
 	}
 
 	@Override
 	public MurmurObject opBitOr(MurmurObject other) {
-		return value.opBitOr(other);
+		return getValue().opBitOr(other);
 	}
 
 	@Override
 	public MurmurObject opLogicalNot() {
-		return value.opLogicalNot();
+		return getValue().opLogicalNot();
 	}
 
 	@Override
 	public MurmurObject opLogicalAnd(MurmurObject other) {
-		return value.opLogicalAnd(other);
+		return getValue().opLogicalAnd(other);
 	}
 
 	@Override
 	public MurmurObject opLogicalOr(MurmurObject other) {
-		return value.opLogicalOr(other);
+		return getValue().opLogicalOr(other);
 	}
 
 	@Override
 	public MurmurObject opIndex(MurmurObject other) {
-		return value.opIndex(other);
+		return getValue().opIndex(other);
 	}
 
 	@Override
 	public MurmurObject opPlusAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opPlusAssign(other);
-		return value = value.opPlus(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opPlusAssign(other);
+		
+		MurmurObject result = current.opPlus(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opMinusAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opMinusAssign(other);
-		return value = value.opMinus(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opMinusAssign(other);
+		
+		MurmurObject result = current.opMinus(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opMultiplyAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opMultiplyAssign(other);
-		return value = value.opMultiply(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opMultiplyAssign(other);
+		
+		MurmurObject result = current.opMultiply(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opDivideAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opDivideAssign(other);
-		return value = value.opDivide(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opDivideAssign(other);
+		
+		MurmurObject result = current.opDivide(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opModuloAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opModuloAssign(other);
-		return value = value.opModulo(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opModuloAssign(other);
+		
+		MurmurObject result = current.opModulo(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opBitAndAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opBitAndAssign(other);
-		return value = value.opBitAnd(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opBitAndAssign(other);
+		
+		MurmurObject result = current.opBitAnd(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opBitXorAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opBitXorAssign(other);
-		return value = value.opBitXor(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opBitXorAssign(other);
+		
+		MurmurObject result = current.opBitXor(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opBitOrAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opBitOrAssign(other);
-		return value = value.opBitOr(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opBitOrAssign(other);
+		
+		MurmurObject result = current.opBitOr(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opShiftLeftAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opShiftLeftAssign(other);
-		return value = value.opShiftLeft(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opShiftLeftAssign(other);
+		
+		MurmurObject result = current.opShiftLeft(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opShiftRightAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opShiftRightAssign(other);
-		return value = value.opShiftRight(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opShiftRightAssign(other);
+		
+		MurmurObject result = current.opShiftRight(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opConcatAssign(MurmurObject other) {
-		if(value instanceof ReferenceType)
-			return ((ReferenceType)value).opConcatAssign(other);
-		return value = value.opConcat(other);
+		MurmurObject current = getValue();
+		if(current instanceof ReferenceType)
+			return ((ReferenceType)current).opConcatAssign(other);
+		
+		MurmurObject result = current.opConcat(other);
+		setValue(result);
+		return result;
 	}
 
 	@Override
 	public MurmurObject opConcat(MurmurObject other) {
-		return value.opConcat(other);
+		return getValue().opConcat(other);
 	}
 	
 	@Override
 	public int hashCode() {
-		return value.hashCode();
+		return getValue().hashCode();
 	}
 	
 	@Override
 	public boolean equals(Object o) {
-		return value.equals(o);
+		return getValue().equals(o);
 	}
 
 	@Override
 	public String toString() {
-		return "Symbol{" + "name=" + name + ", value=" + value + '}';
+		return "Symbol{" + "name=" + name + ", value=" + getValue() + '}';
 	}
 
 }
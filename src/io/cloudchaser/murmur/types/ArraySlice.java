@@ -0,0 +1,93 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only view over a range of another array's storage. The viewed
+ * storage is copied by its owner before being modified, so the view never
+ * observes later writes.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class ArraySlice extends AbstractList<MurmurObject>
+		implements RandomAccess, SharedStorage {
+	
+	/**
+	 * The viewed storage.
+	 */
+	private final List<MurmurObject> storage;
+	
+	/**
+	 * The index of the first element in the viewed storage.
+	 */
+	private final int offset;
+	
+	/**
+	 * The number of elements in the view.
+	 */
+	private final int length;
+
+	private ArraySlice(List<MurmurObject> storage, int offset, int length) {
+		this.storage = storage;
+		this.offset = offset;
+		this.length = length;
+	}
+	
+	/**
+	 * Creates a view over a range of storage. Views of views share the
+	 * underlying storage directly.
+	 * 
+	 * @param storage The storage to view.
+	 * @param from The first index, inclusive.
+	 * @param to The last index, exclusive.
+	 * @return The view.
+	 */
+	static ArraySlice of(List<MurmurObject> storage, int from, int to) {
+		if(storage instanceof ArraySlice) {
+			ArraySlice slice = (ArraySlice)storage;
+			return new ArraySlice(slice.storage, slice.offset + from, to - from);
+		}
+		return new ArraySlice(storage, from, to - from);
+	}
+
+	@Override
+	public MurmurObject get(int index) {
+		if(index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+		}
+		return storage.get(offset + index);
+	}
+
+	@Override
+	public int size() {
+		return length;
+	}
+	
+}
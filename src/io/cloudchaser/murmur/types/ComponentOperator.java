@@ -0,0 +1,173 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+/**
+ * Operators that a component can overload, by defining a method with the
+ * operator's name. Binary operators take the right operand as their only
+ * argument, and unary operators take none.
+ * <p>
+ * Arithmetic and concatenation can also be overloaded for an instance on
+ * the right of the operator, by a method with the operator's name and a
+ * <code>Right</code> suffix taking the left operand. Comparisons with an
+ * instance on the right use the mirrored operator instead.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public enum ComponentOperator {
+	
+	PLUS("opPlus", "opPlusRight"),
+	MINUS("opMinus", "opMinusRight"),
+	MULTIPLY("opMultiply", "opMultiplyRight"),
+	DIVIDE("opDivide", "opDivideRight"),
+	MODULO("opModulo", "opModuloRight"),
+	LESS_THAN("opLessThan", null),
+	GREATER_THAN("opGreaterThan", null),
+	LESS_OR_EQUAL("opLessOrEqual", null),
+	GREATER_OR_EQUAL("opGreaterOrEqual", null),
+	EQUALS("opEquals", null),
+	NOT_EQUALS("opNotEquals", null),
+	INDEX("opIndex", null),
+	CONCAT("opConcat", "opConcatRight"),
+	POSITIVE("opPositive"),
+	NEGATIVE("opNegative"),
+	INCREMENT("opIncrement"),
+	DECREMENT("opDecrement"),
+	LOGICAL_NOT("opLogicalNot"),
+	BIT_NOT("opBitNot");
+	
+	/**
+	 * The overloaded operators, by binary operator.
+	 */
+	private static final ComponentOperator[] BY_OPERATOR;
+	
+	static {
+		MurmurOperator[] operators = MurmurOperator.values();
+		BY_OPERATOR = new ComponentOperator[operators.length];
+		for(MurmurOperator operator : operators) {
+			BY_OPERATOR[operator.ordinal()] = valueOf(operator.name());
+		}
+	}
+	
+	/**
+	 * The name of the method implementing the operator.
+	 */
+	public final String methodName;
+	
+	/**
+	 * The name of the method implementing the operator for an instance on
+	 * the right, or <code>null</code> if it can't be overloaded.
+	 */
+	public final String reflectedName;
+	
+	/**
+	 * The number of arguments the implementing method takes.
+	 */
+	public final int parameterCount;
+	
+	/**
+	 * Creates a unary operator.
+	 * 
+	 * @param methodName The implementing method's name.
+	 */
+	ComponentOperator(String methodName) {
+		this.methodName = methodName;
+		this.reflectedName = null;
+		this.parameterCount = 0;
+	}
+	
+	/**
+	 * Creates a binary operator.
+	 * 
+	 * @param methodName The implementing method's name.
+	 * @param reflectedName The reflected method's name, if any.
+	 */
+	ComponentOperator(String methodName, String reflectedName) {
+		this.methodName = methodName;
+		this.reflectedName = reflectedName;
+		this.parameterCount = 1;
+	}
+	
+	/**
+	 * Gets the operator that gives the same result with its operands
+	 * swapped.
+	 * 
+	 * @return The mirrored operator, or <code>null</code>.
+	 */
+	public ComponentOperator getMirror() {
+		switch(this) {
+			case LESS_THAN:
+				return GREATER_THAN;
+			case GREATER_THAN:
+				return LESS_THAN;
+			case LESS_OR_EQUAL:
+				return GREATER_OR_EQUAL;
+			case GREATER_OR_EQUAL:
+				return LESS_OR_EQUAL;
+			case EQUALS:
+			case NOT_EQUALS:
+				return this;
+			default:
+				return null;
+		}
+	}
+	
+	/**
+	 * Gets the overloadable operator for a binary operator.
+	 * 
+	 * @param operator The binary operator.
+	 * @return The overloadable operator.
+	 */
+	public static ComponentOperator of(MurmurOperator operator) {
+		return BY_OPERATOR[operator.ordinal()];
+	}
+	
+	/**
+	 * Gets the overloadable operator applied by a compound assignment.
+	 * 
+	 * @param operator The assignment operator's text.
+	 * @return The overloadable operator, or <code>null</code>.
+	 */
+	public static ComponentOperator ofAssignment(String operator) {
+		switch(operator) {
+			case "+=":
+				return PLUS;
+			case "-=":
+				return MINUS;
+			case "*=":
+				return MULTIPLY;
+			case "/=":
+				return DIVIDE;
+			case "%=":
+				return MODULO;
+			case "~=":
+				return CONCAT;
+			default:
+				return null;
+		}
+	}
+	
+}
@@ -0,0 +1,297 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.types.MurmurComponent.ComponentField;
+import io.cloudchaser.murmur.types.MurmurComponent.ComponentFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a component's field names to slots in its instances' storage, and
+ * holds the component's method table. A shape is computed once per
+ * component, and shared by every instance.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class ComponentShape {
+	
+	/**
+	 * The slot index of each field, by name.
+	 */
+	private final Map<String, Integer> slots;
+	
+	/**
+	 * The field names, by slot index.
+	 */
+	private final String[] names;
+	
+	/**
+	 * The slot index of each method, by name.
+	 */
+	private final Map<String, Integer> methodSlots;
+	
+	/**
+	 * The method table, by slot index.
+	 */
+	private final MurmurFunction[] methods;
+	
+	/**
+	 * The operator overloads, by operator ordinal.
+	 */
+	private final MurmurFunction[] operators;
+	
+	/**
+	 * The reflected operator overloads, by operator ordinal.
+	 */
+	private final MurmurFunction[] reflected;
+
+	/**
+	 * The shape whose slots are a prefix of this one's, if any.
+	 */
+	private final ComponentShape base;
+
+	public ComponentShape(Collection<ComponentField<?>> members) {
+		this(members, null);
+	}
+	
+	/**
+	 * Creates a shape, checking if it extends the layout of a base shape.
+	 * 
+	 * @param members The component members, in layout order.
+	 * @param base The first parent's shape, or <code>null</code>.
+	 */
+	public ComponentShape(Collection<ComponentField<?>> members, ComponentShape base) {
+		List<String> fields = new ArrayList<>();
+		List<ComponentFunction> functions = new ArrayList<>();
+		members.stream().forEach((member) -> {
+			if(member instanceof ComponentFunction) {
+				functions.add((ComponentFunction)member);
+			} else {
+				fields.add(member.getName());
+			}
+		});
+		
+		// Assign slots in member order.
+		names = fields.toArray(new String[fields.size()]);
+		slots = new HashMap<>();
+		for(int idx = 0; idx < names.length; idx++) {
+			slots.put(names[idx], idx);
+		}
+		
+		// Build the method table.
+		methods = new MurmurFunction[functions.size()];
+		methodSlots = new HashMap<>();
+		for(int idx = 0; idx < methods.length; idx++) {
+			methods[idx] = functions.get(idx).getValue();
+			methodSlots.put(functions.get(idx).getName(), idx);
+		}
+		
+		// Check that the base shape's slots are a prefix of this one.
+		this.base = base != null && isPrefixedBy(base) ? base : null;
+		
+		// Resolve operator overloads.
+		operators = new MurmurFunction[ComponentOperator.values().length];
+		reflected = new MurmurFunction[operators.length];
+		for(ComponentOperator operator : ComponentOperator.values()) {
+			MurmurFunction method = getMethod(operator.methodName);
+			if(method != null && method.getParameterCount() == operator.parameterCount) {
+				operators[operator.ordinal()] = method;
+			}
+			
+			// Resolve the overload for an instance on the right.
+			if(operator.reflectedName != null) {
+				method = getMethod(operator.reflectedName);
+				if(method != null && method.getParameterCount() == 1) {
+					reflected[operator.ordinal()] = method;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the slot of a field.
+	 * 
+	 * @param name The field name.
+	 * @return The slot index, or <code>-1</code> if there's no such field.
+	 */
+	public int getSlot(String name) {
+		Integer slot = slots.get(name);
+		return slot == null ? -1 : slot;
+	}
+	
+	public String getFieldName(int slot) {
+		return names[slot];
+	}
+	
+	public int getFieldCount() {
+		return names.length;
+	}
+	
+	/**
+	 * Checks if every field and method of another shape is in the same
+	 * slot in this shape.
+	 * 
+	 * @param other The other shape.
+	 * @return <code>true</code> if the other shape is a prefix.
+	 */
+	private boolean isPrefixedBy(ComponentShape other) {
+		if(other.names.length > names.length ||
+				other.methods.length > methods.length) {
+			return false;
+		}
+		for(int idx = 0; idx < other.names.length; idx++) {
+			if(!other.names[idx].equals(names[idx])) return false;
+		}
+		for(Map.Entry<String, Integer> entry : other.methodSlots.entrySet()) {
+			if(!entry.getValue().equals(methodSlots.get(entry.getKey()))) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks if this shape shares the slots of another shape. Slots looked
+	 * up on the other shape are valid for instances of this one.
+	 * 
+	 * @param other The other shape.
+	 * @return <code>true</code> if this is, or extends, the other shape.
+	 */
+	public boolean extendsShape(ComponentShape other) {
+		for(ComponentShape shape = this; shape != null; shape = shape.base) {
+			if(shape == other) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets the most basic shape sharing this shape's slot for a field.
+	 * 
+	 * @param name The field name.
+	 * @return The base-most shape defining the field.
+	 */
+	public ComponentShape getFieldOwner(String name) {
+		ComponentShape owner = this;
+		while(owner.base != null && owner.base.slots.containsKey(name)) {
+			owner = owner.base;
+		}
+		return owner;
+	}
+	
+	/**
+	 * Gets the most basic shape sharing this shape's slot for a method.
+	 * 
+	 * @param name The method name.
+	 * @return The base-most shape defining the method.
+	 */
+	public ComponentShape getMethodOwner(String name) {
+		ComponentShape owner = this;
+		while(owner.base != null && owner.base.methodSlots.containsKey(name)) {
+			owner = owner.base;
+		}
+		return owner;
+	}
+	
+	/**
+	 * Gets the method overloading an operator.
+	 * 
+	 * @param operator The operator.
+	 * @return The method, or <code>null</code> if it isn't overloaded.
+	 */
+	public MurmurFunction getOperator(ComponentOperator operator) {
+		return operators[operator.ordinal()];
+	}
+	
+	/**
+	 * Gets the method overloading an operator for an instance on the
+	 * right of it.
+	 * 
+	 * @param operator The operator.
+	 * @return The method, or <code>null</code> if it isn't overloaded.
+	 */
+	public MurmurFunction getReflectedOperator(ComponentOperator operator) {
+		return reflected[operator.ordinal()];
+	}
+	
+	/**
+	 * Checks if instances of this shape are plain records. A record shape
+	 * has at least one field, and no methods besides its constructor.
+	 * 
+	 * @return <code>true</code> for record shapes.
+	 */
+	public boolean isRecord() {
+		int ctor = methodSlots.containsKey("~ctor") ? 1 : 0;
+		return names.length > 0 && methods.length == ctor;
+	}
+	
+	/**
+	 * Gets the slot of a method in the method table.
+	 * 
+	 * @param name The method name.
+	 * @return The slot index, or <code>-1</code> if there's no such method.
+	 */
+	public int getMethodSlot(String name) {
+		Integer slot = methodSlots.get(name);
+		return slot == null ? -1 : slot;
+	}
+	
+	public MurmurFunction getMethod(int slot) {
+		return methods[slot];
+	}
+	
+	/**
+	 * Gets a method from the method table, by name.
+	 * 
+	 * @param name The method name.
+	 * @return The method, or <code>null</code> if there's no such method.
+	 */
+	public MurmurFunction getMethod(String name) {
+		int slot = getMethodSlot(name);
+		return slot < 0 ? null : methods[slot];
+	}
+	
+	/**
+	 * Creates field storage for a new instance of this shape.
+	 * 
+	 * @return An array of null values, one per field.
+	 */
+	public MurmurObject[] createFields() {
+		MurmurObject[] fields = new MurmurObject[names.length];
+		Arrays.fill(fields, MurmurNull.NULL);
+		return fields;
+	}
+
+	@Override
+	public String toString() {
+		return "ComponentShape{names=" + Arrays.toString(names) +
+				", methods=" + methodSlots.keySet() + '}';
+	}
+	
+}
@@ -0,0 +1,192 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.parser.MurmurParser.BlockContext;
+import io.cloudchaser.murmur.parser.MurmurParser.KeywordStatementContext;
+import io.cloudchaser.murmur.parser.MurmurParser.StatementContext;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * A component's constructor, resolved once when the component is defined.
+ * The plan maps each <code>&lt;-</code> statement in the constructor to the
+ * field slots it binds. If the constructor does nothing but bind its
+ * parameters, instances are built without invoking it.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class ConstructorPlan {
+	
+	/**
+	 * The component being constructed.
+	 */
+	private final MurmurComponent component;
+	
+	/**
+	 * The constructor function, or <code>null</code> if there is none.
+	 */
+	private final MurmurFunction ctor;
+	
+	/**
+	 * The field slots bound by each <code>&lt;-</code> statement.
+	 */
+	private final Map<KeywordStatementContext, int[]> bindings;
+	
+	/**
+	 * The field slot of each parameter, if the constructor only binds
+	 * parameters. Otherwise <code>null</code>.
+	 */
+	private final int[] parameterSlots;
+	
+	/**
+	 * The initial field values.
+	 */
+	private final MurmurObject[] defaults;
+	
+	/**
+	 * Whether instances are created as records.
+	 */
+	private final boolean record;
+
+	public ConstructorPlan(MurmurComponent component) {
+		ComponentShape shape = component.getShape();
+		this.component = component;
+		this.ctor = shape.getMethod("~ctor");
+		this.bindings = new IdentityHashMap<>();
+		this.defaults = shape.createFields();
+		this.record = shape.isRecord();
+		this.parameterSlots = ctor == null ? null : plan(shape, ctor.getBody());
+	}
+	
+	/**
+	 * Resolves the <code>&lt;-</code> statements in the constructor body.
+	 * 
+	 * @param shape The component shape.
+	 * @param body The constructor body.
+	 * @return The parameter slots, if the body only binds parameters.
+	 */
+	private int[] plan(ComponentShape shape, BlockContext body) {
+		List<String> parameters = ctor.getParameters();
+		int[] slots = new int[parameters.size()];
+		boolean simple = true;
+		
+		// Parameters which aren't bound are ignored.
+		for(int idx = 0; idx < slots.length; idx++) {
+			slots[idx] = -1;
+		}
+		
+		for(StatementContext statement : body.statement()) {
+			KeywordStatementContext keyword = statement.keywordStatement();
+			if(keyword == null || keyword.operator == null ||
+					!keyword.operator.getText().equals("<-")) {
+				// Not a binding statement.
+				simple = false;
+				continue;
+			}
+			
+			// Resolve the bound field slots.
+			List<TerminalNode> names = keyword.identifierList().Identifier();
+			int[] fields = new int[names.size()];
+			for(int idx = 0; idx < fields.length; idx++) {
+				String name = names.get(idx).getText();
+				fields[idx] = shape.getSlot(name);
+				
+				// Check that this is a field bound to a parameter.
+				int param = parameters.indexOf(name);
+				if(fields[idx] < 0 || param < 0) {
+					simple = false;
+				} else {
+					slots[param] = fields[idx];
+				}
+			}
+			
+			bindings.put(keyword, fields);
+		}
+		
+		return simple ? slots : null;
+	}
+	
+	public MurmurFunction getConstructor() {
+		return ctor;
+	}
+	
+	/**
+	 * Gets the field slots bound by a <code>&lt;-</code> statement in the
+	 * constructor. A slot is <code>-1</code> if the name isn't a field.
+	 * 
+	 * @param statement The binding statement.
+	 * @return The field slots, or <code>null</code> if the statement isn't
+	 * part of the constructor.
+	 */
+	public int[] getBindings(KeywordStatementContext statement) {
+		return bindings.get(statement);
+	}
+	
+	/**
+	 * Creates an instance of the component.
+	 * 
+	 * @param delegate The interpreter invocation delegate.
+	 * @param args The constructor arguments.
+	 * @return The new instance.
+	 */
+	public MurmurInstance construct(InvocationDelegate delegate,
+			List<MurmurObject> args) {
+		MurmurInstance instance = record ?
+				new MurmurRecord(component, defaults.clone()) :
+				new MurmurInstance(component, defaults.clone());
+		
+		// Check for a constructor.
+		if(ctor == null) {
+			if(!args.isEmpty()) {
+				throw new UnsupportedOperationException();
+			}
+			return instance;
+		}
+		
+		// Bind parameters directly, if that's all the constructor does.
+		if(parameterSlots != null) {
+			if(args.size() != parameterSlots.length) {
+				throw new UnsupportedOperationException();
+			}
+			for(int idx = 0; idx < parameterSlots.length; idx++) {
+				if(parameterSlots[idx] >= 0) {
+					instance.setField(parameterSlots[idx], args.get(idx));
+				}
+			}
+			return instance;
+		}
+		
+		// Invoke the constructor, with the instance as receiver.
+		delegate.invokeFunction(ctor.createLocal(
+				instance.getContext(), args), ctor);
+		return instance;
+	}
+	
+}
@@ -0,0 +1,109 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+/**
+ * A type which can be made deeply immutable. Once frozen, an object and
+ * everything reachable from it can be shared across threads without locks.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public interface FreezableType {
+	
+	/**
+	 * Freezes this object, and every freezable object it references.
+	 * Freezing an object which is already frozen has no effect.
+	 */
+	void freeze();
+	
+	/**
+	 * Checks if this object has been frozen.
+	 * 
+	 * @return <code>true</code> if frozen.
+	 */
+	boolean isFrozen();
+	
+	/**
+	 * Checks if an object's value can never change. Primitive values are
+	 * immutable, as are frozen objects.
+	 * 
+	 * @param object The object to check.
+	 * @return <code>true</code> if the object is immutable.
+	 */
+	static boolean isImmutable(MurmurObject object) {
+		if(object instanceof FreezableType) {
+			return ((FreezableType)object).isFrozen();
+		}
+		
+		switch(object.getType()) {
+			case NULL:
+			case INTEGER:
+			case DECIMAL:
+			case BOOLEAN:
+			case CHARACTER:
+			case STRING:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Freezes an object, if it's freezable.
+	 * 
+	 * @param object The object to freeze.
+	 */
+	static void freeze(MurmurObject object) {
+		if(object instanceof FreezableType) {
+			((FreezableType)object).freeze();
+		}
+	}
+	
+	/**
+	 * Creates the native <code>freeze()</code> member of an object.
+	 * 
+	 * @param object The object to freeze.
+	 * @return The native method, which returns the frozen object.
+	 */
+	static NativeMethod freezeMethod(MurmurObject object) {
+		return new NativeMethod("freeze", 0, (delegate, args) -> {
+			freeze(object);
+			return object;
+		});
+	}
+	
+	/**
+	 * Creates the native <code>isFrozen()</code> member of an object.
+	 * 
+	 * @param object The freezable object.
+	 * @return The native method.
+	 */
+	static NativeMethod isFrozenMethod(FreezableType object) {
+		return new NativeMethod("isFrozen", 0, (delegate, args) ->
+				MurmurBoolean.create(object.isFrozen()));
+	}
+	
+}
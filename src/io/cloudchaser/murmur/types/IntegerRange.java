@@ -0,0 +1,76 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * The integers of an inclusive range, created as they're read.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class IntegerRange extends AbstractList<MurmurObject>
+		implements RandomAccess, SharedStorage {
+	
+	/**
+	 * The first integer in the range.
+	 */
+	private final long first;
+	
+	/**
+	 * The number of integers in the range.
+	 */
+	private final int length;
+
+	IntegerRange(long first, long last) {
+		this.first = first;
+		this.length = last < first ? 0 :
+				Math.toIntExact(last - first + 1);
+	}
+	
+	public long getFirst() {
+		return first;
+	}
+	
+	public long getLast() {
+		return first + length - 1;
+	}
+
+	@Override
+	public MurmurObject get(int index) {
+		if(index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+		}
+		return MurmurInteger.create(first + index);
+	}
+
+	@Override
+	public int size() {
+		return length;
+	}
+	
+}
@@ -0,0 +1,108 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import static io.cloudchaser.murmur.types.MurmurType.OBJECT;
+
+/**
+ * An instance viewed through an interface. Calls through the view are
+ * dispatched by itable slot.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class InterfaceView extends MurmurObject {
+	
+	/**
+	 * The interface type of this view.
+	 */
+	private final MurmurInterface itype;
+	
+	/**
+	 * The instance being viewed.
+	 */
+	private final MurmurInstance instance;
+	
+	/**
+	 * The instance component's itable for the interface.
+	 */
+	private final MurmurFunction[] table;
+
+	public InterfaceView(MurmurInterface itype,
+			MurmurInstance instance, MurmurFunction[] table) {
+		super(OBJECT);
+		this.itype = itype;
+		this.instance = instance;
+		this.table = table;
+	}
+	
+	public MurmurInterface getInterface() {
+		return itype;
+	}
+	
+	public MurmurInstance getInstance() {
+		return instance;
+	}
+	
+	public MurmurFunction getMethod(int slot) {
+		return table[slot];
+	}
+	
+	@Override
+	public Object toJavaObject() {
+		return instance.toJavaObject();
+	}
+
+	@Override
+	public MurmurObject getMember(String name) {
+		int slot = itype.getSlot(name);
+		if(slot < 0) return MurmurVoid.VOID;
+		
+		// Bind the method, since it's read as a value.
+		return table[slot].bind(instance.getContext());
+	}
+
+	@Override
+	public MurmurString asString() {
+		return MurmurString.create(itype.getName());
+	}
+
+	@Override
+	public MurmurObject opEquals(MurmurObject other) {
+		return instance.opEquals(other);
+	}
+
+	@Override
+	public MurmurObject opNotEquals(MurmurObject other) {
+		return instance.opNotEquals(other);
+	}
+
+	@Override
+	public String toString() {
+		return "InterfaceView{itype=" + itype.getName() +
+				", instance=" + instance + '}';
+	}
+	
+}
@@ -35,4 +35,33 @@ public interface InvocationDelegate {
 	
 	MurmurObject invokeFunction(SymbolContext context, MurmurFunction function);
 	
+	/**
+	 * Checks if a value can be invoked on several threads at once, without
+	 * writing to any state it captures.
+	 * 
+	 * @param callee The value to check.
+	 * @return <code>true</code> if the value can be invoked concurrently.
+	 */
+	default boolean isConcurrent(MurmurObject callee) {
+		return false;
+	}
+	
+	/**
+	 * Checks if this delegate can create delegates for other threads.
+	 * 
+	 * @return <code>true</code> if {@link #fork()} is supported.
+	 */
+	default boolean canFork() {
+		return false;
+	}
+	
+	/**
+	 * Creates a delegate for invoking functions on another thread.
+	 * 
+	 * @return The new delegate, or <code>null</code> if not supported.
+	 */
+	default InvocationDelegate fork() {
+		return null;
+	}
+	
 }
@@ -24,12 +24,14 @@
 
 package io.cloudchaser.murmur.types;
 
+import io.cloudchaser.murmur.MurmurError;
 import static io.cloudchaser.murmur.types.MurmurType.ARRAY;
 import static io.cloudchaser.murmur.types.MurmurType.INTEGER;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -40,9 +42,33 @@ import java.util.List;
  * @since 0.1
  */
 public class MurmurArray extends MurmurObject
-		implements ReferenceType {
+		implements ReferenceType, FreezableType, IndexableType {
 	
-	private final List<MurmurObject> elements;
+	/**
+	 * The array's elements. Either a mutable list, primitive storage while
+	 * every element shares one primitive type, off-heap storage, or shared
+	 * storage such as a persistent vector or a slice of another array.
+	 */
+	private List<MurmurObject> elements;
+	
+	/**
+	 * Whether slices of this array share its mutable storage. The storage
+	 * is copied before the next in-place modification.
+	 */
+	private boolean shared;
+	
+	/**
+	 * Whether this array has been frozen.
+	 */
+	private volatile boolean frozen;
+	
+	/**
+	 * The cached hash code, or <code>0</code> if it isn't cached. The hash
+	 * is only cached when every element is immutable, and is reset when
+	 * this array changes. A single field is used, so that threads sharing a
+	 * frozen value never see a partly written cache.
+	 */
+	private int hash;
 
 	public MurmurArray() {
 		super(ARRAY);
@@ -51,7 +77,19 @@ public class MurmurArray extends MurmurObject
 
 	public MurmurArray(List<MurmurObject> elements) {
 		super(ARRAY);
-		this.elements = elements;
+		this.elements = PrimitiveStorage.specialize(elements);
+	}
+	
+	/**
+	 * Creates an array of the integers in an inclusive range. The integers
+	 * are created as they're read.
+	 * 
+	 * @param first The first integer.
+	 * @param last The last integer.
+	 * @return The range array.
+	 */
+	public static MurmurArray range(long first, long last) {
+		return new MurmurArray(new IntegerRange(first, last));
 	}
 	
 	@Override
@@ -67,6 +105,375 @@ public class MurmurArray extends MurmurObject
 		return values;
 	}
 	
+	@Override
+	public void freeze() {
+		if(frozen) return;
+		frozen = true;
+		
+		// Freeze the elements.
+		elements.stream().forEach(FreezableType::freeze);
+	}
+	
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+	
+	/**
+	 * Checks that this array can be modified.
+	 */
+	private void checkMutable() {
+		if(frozen) {
+			throw new MurmurError(MurmurError.FROZEN);
+		}
+		hash = 0;
+	}
+	
+	/**
+	 * Gets the elements for in-place modification. Shared persistent
+	 * storage is copied into a mutable list first.
+	 * 
+	 * @return The mutable element list.
+	 */
+	private List<MurmurObject> writable() {
+		checkMutable();
+		if(shared || elements instanceof SharedStorage) {
+			elements = elements instanceof OffHeapStorage ?
+					OffHeapStorage.copyOf(elements) :
+					PrimitiveStorage.copyOf(elements);
+			shared = false;
+		}
+		return elements;
+	}
+	
+	/**
+	 * Gets the elements for in-place modification with some values.
+	 * Primitive storage is generalized if it can't hold the values, and
+	 * empty storage is specialized for them.
+	 * 
+	 * @param values The values to be written.
+	 * @return The mutable element list.
+	 */
+	private List<MurmurObject> writable(List<MurmurObject> values) {
+		List<MurmurObject> list = writable();
+		if(list instanceof PrimitiveStorage) {
+			// Generalize on the first heterogeneous write.
+			if(!values.stream().allMatch(((PrimitiveStorage)list)::accepts)) {
+				elements = list = new ArrayList<>(list);
+			}
+		} else if(list.isEmpty() && !values.isEmpty()) {
+			// Pick a storage type for the first elements.
+			PrimitiveStorage storage = PrimitiveStorage.create(
+					values.get(0).getType(), values.size());
+			if(storage != null && values.stream().allMatch(storage::accepts)) {
+				elements = list = storage;
+			}
+		}
+		return list;
+	}
+	
+	/**
+	 * Gets the elements as a persistent vector, for non-destructive
+	 * operations. An array already holding a vector shares it with the
+	 * arrays derived from it. Any other storage is copied into a new
+	 * vector, and left in place, so that unboxed storage stays unboxed and
+	 * frozen arrays are never written.
+	 * 
+	 * @return The persistent element vector.
+	 */
+	private PersistentVector persistent() {
+		List<MurmurObject> values = elements;
+		return values instanceof PersistentVector ?
+				(PersistentVector)values : PersistentVector.of(values);
+	}
+	
+	@Override
+	public MurmurObject getMember(String name) {
+		switch(name) {
+			case "freeze":
+				return FreezableType.freezeMethod(this);
+			case "isFrozen":
+				return FreezableType.isFrozenMethod(this);
+			case "toOffHeap":
+				return new NativeMethod(name, 0, (delegate, args) ->
+						new MurmurArray(OffHeapStorage.copyOf(elements)));
+			case "isOffHeap":
+				return new NativeMethod(name, 0, (delegate, args) ->
+						MurmurBoolean.create(elements instanceof OffHeapStorage));
+			case "release":
+				return new NativeMethod(name, 0, (delegate, args) -> {
+					release();
+					return MurmurVoid.VOID;
+				});
+			case "map":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(map(delegate, args.get(0)).collect()));
+			case "filter":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(filter(delegate, args.get(0)).collect()));
+			case "reduce":
+				return new NativeMethod(name, 2, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 2);
+					MurmurObject[] result = { args.get(1) };
+					pipeline().run((value) -> {
+						result[0] = call.invoke(result[0], value);
+						return true;
+					});
+					return result[0];
+				});
+			case "forEach":
+				return new NativeMethod(name, 1, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 1);
+					pipeline().run((value) -> {
+						call.invoke(value);
+						return true;
+					});
+					return MurmurVoid.VOID;
+				});
+			case "any":
+				return new NativeMethod(name, 1, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 1);
+					boolean[] found = { false };
+					pipeline().run((value) -> !(found[0] = call.test(value)));
+					return MurmurBoolean.create(found[0]);
+				});
+			case "all":
+				return new NativeMethod(name, 1, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 1);
+					boolean[] matched = { true };
+					pipeline().run((value) -> matched[0] = call.test(value));
+					return MurmurBoolean.create(matched[0]);
+				});
+			case "sort":
+				return new NativeMethod(name, 0, 1, (delegate, args) ->
+						new MurmurArray(args.isEmpty() ? SortOps.sort(snapshot()) :
+								SortOps.sort(delegate, snapshot(), args.get(0))));
+			case "sortBy":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(SortOps.sortBy(delegate, snapshot(), args.get(0))));
+			case "binarySearch":
+				return new NativeMethod(name, 1, 2, (delegate, args) ->
+						MurmurInteger.create(SortOps.binarySearch(delegate, snapshot(),
+								args.get(0), args.size() < 2 ? null : args.get(1))));
+			case "topK":
+				return new NativeMethod(name, 1, 2, (delegate, args) ->
+						new MurmurArray(SortOps.topK(delegate, snapshot(),
+								toCount(args.get(0)),
+								args.size() < 2 ? null : args.get(1))));
+			case "toSequence":
+				return new NativeMethod(name, 0, (delegate, args) ->
+						MurmurSequence.of(this));
+			case "parallelMap":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(ParallelOps.map(delegate, snapshot(), args.get(0))));
+			case "parallelReduce":
+				return new NativeMethod(name, 2, (delegate, args) ->
+						ParallelOps.reduce(delegate, snapshot(), args.get(0), args.get(1)));
+			case "parallelSort":
+				return new NativeMethod(name, 0, 1, (delegate, args) ->
+						new MurmurArray(args.isEmpty() ? ParallelOps.sort(snapshot()) :
+								ParallelOps.sort(delegate, snapshot(), args.get(0))));
+			case "add":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(NumericOps.apply(snapshot(),
+								args.get(0), NumericOps.Arithmetic.ADD)));
+			case "sub":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(NumericOps.apply(snapshot(),
+								args.get(0), NumericOps.Arithmetic.SUBTRACT)));
+			case "mul":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(NumericOps.apply(snapshot(),
+								args.get(0), NumericOps.Arithmetic.MULTIPLY)));
+			case "div":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(NumericOps.apply(snapshot(),
+								args.get(0), NumericOps.Arithmetic.DIVIDE)));
+			case "fma":
+				return new NativeMethod(name, 2, (delegate, args) ->
+						new MurmurArray(NumericOps.multiplyAdd(snapshot(),
+								args.get(0), args.get(1))));
+			case "dot":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						NumericOps.dot(snapshot(), args.get(0)));
+			case "sum":
+				return new NativeMethod(name, 0, (delegate, args) ->
+						NumericOps.sum(snapshot()));
+			case "min":
+				return new NativeMethod(name, 0, (delegate, args) ->
+						NumericOps.extreme(snapshot(), false));
+			case "max":
+				return new NativeMethod(name, 0, (delegate, args) ->
+						NumericOps.extreme(snapshot(), true));
+			case "lt":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(NumericOps.compare(snapshot(),
+								args.get(0), NumericOps.Comparison.LESS_THAN)));
+			case "gt":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(NumericOps.compare(snapshot(),
+								args.get(0), NumericOps.Comparison.GREATER_THAN)));
+			case "eq":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(NumericOps.compare(snapshot(),
+								args.get(0), NumericOps.Comparison.EQUAL)));
+			default:
+				return super.getMember(name);
+		}
+	}
+	
+	/**
+	 * Checks if a member extends or consumes an array's pipeline.
+	 * 
+	 * @param name The member name.
+	 * @return <code>true</code> for the pipeline members.
+	 */
+	public static boolean isPipelineMember(String name) {
+		switch(name) {
+			case "map":
+			case "filter":
+			case "reduce":
+			case "forEach":
+			case "any":
+			case "all":
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Gets a member whose result is only used by a following pipeline
+	 * member, as in <code>a.map(f).filter(g)</code>. The map and filter
+	 * members return lazy arrays, so the chain runs in a single pass when
+	 * it ends. Other members are the same as {@link #getMember(String)}.
+	 * 
+	 * @param name The member name.
+	 * @return The member.
+	 */
+	public MurmurObject getPipelineMember(String name) {
+		switch(name) {
+			case "map":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(lazy(map(delegate, args.get(0)))));
+			case "filter":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						new MurmurArray(lazy(filter(delegate, args.get(0)))));
+			default:
+				return getMember(name);
+		}
+	}
+	
+	/**
+	 * Gets the elements as a pipeline, for chained map and filter
+	 * operations. A lazy array extends its own pipeline.
+	 * 
+	 * @return The element pipeline.
+	 */
+	private PipelineStorage pipeline() {
+		if(elements instanceof PipelineStorage) {
+			return (PipelineStorage)elements;
+		}
+		return new PipelineStorage(elements);
+	}
+	
+	private PipelineStorage map(InvocationDelegate delegate, MurmurObject function) {
+		PreparedCall call = new PreparedCall(delegate, function, 1);
+		return pipeline().then(call::invoke);
+	}
+	
+	private PipelineStorage filter(InvocationDelegate delegate, MurmurObject function) {
+		PreparedCall call = new PreparedCall(delegate, function, 1);
+		return pipeline().then((value) -> call.test(value) ? value : null);
+	}
+	
+	/**
+	 * Leaves a pipeline to be computed later. This array's storage is
+	 * shared with it until its next in-place modification.
+	 * 
+	 * @param pipeline The pipeline.
+	 * @return The pipeline.
+	 */
+	private PipelineStorage lazy(PipelineStorage pipeline) {
+		shared |= !(elements instanceof SharedStorage);
+		return pipeline;
+	}
+
+	/**
+	 * Converts an argument to an element count.
+	 *
+	 * @param value The count argument.
+	 * @return The count, as an int.
+	 */
+	private static int toCount(MurmurObject value) {
+		long count = value.asInteger().getValue();
+		if(count < 0 || count > Integer.MAX_VALUE) {
+			throw new MurmurError(MurmurError.OUT_OF_RANGE);
+		}
+		return (int)count;
+	}
+
+	/**
+	 * Gets the elements for reading from several threads. Lazy elements are
+	 * computed first, and the storage is shared until this array's next
+	 * in-place modification.
+	 * 
+	 * @return The element list.
+	 */
+	List<MurmurObject> snapshot() {
+		shared |= !(elements instanceof SharedStorage);
+		elements.size();
+		return elements;
+	}
+	
+	/**
+	 * Creates a view of a range of this array's elements. The view shares
+	 * this array's storage until either of them is modified in place.
+	 * Negative indices count from the end of the array.
+	 * 
+	 * @param from The first index, inclusive.
+	 * @param to The last index, inclusive.
+	 * @return The array view.
+	 */
+	public MurmurArray slice(long from, long to) {
+		// Handle negative indexing.
+		int size = elements.size();
+		long first = from < 0 ? from + size : from;
+		long last = to < 0 ? to + size : to;
+		
+		// Check for a valid range. Empty ranges end just before they start.
+		if(first < 0 || last >= size || last < first - 1) {
+			MurmurError error = new MurmurError(MurmurError.OUT_OF_RANGE);
+			error.setLineText("\t(Range: " + from + " .. " + to + ", Size: " + size + ")");
+			throw error;
+		}
+		
+		// Share the storage, copying it on the next write.
+		shared |= !(elements instanceof SharedStorage);
+		return new MurmurArray(ArraySlice.of(elements, (int)first, (int)last + 1));
+	}
+	
+	/**
+	 * Releases this array's off-heap storage, if it has any. The array
+	 * can't be used afterwards. Storage still shared with slices or
+	 * pipelines isn't released, so they keep working; this array only
+	 * gives up its reference to it.
+	 */
+	public void release() {
+		if(elements instanceof OffHeapStorage) {
+			checkMutable();
+			OffHeapStorage storage = (OffHeapStorage)elements;
+			
+			// Detach shared storage, instead of releasing it.
+			if(shared) {
+				elements = OffHeapStorage.released(storage.getElementType());
+				shared = false;
+			} else {
+				storage.release();
+			}
+		}
+	}
+	
 	@Override
 	public boolean isCompatible(Class<?> type) {
 		return type.isAssignableFrom(Object[].class) ||
@@ -156,22 +563,21 @@ public class MurmurArray extends MurmurObject
 
 	@Override
 	public MurmurObject opPlus(MurmurObject other) {
-		// Create a copy and append the element.
-		List<MurmurObject> copy = new ArrayList<>(elements);
-		copy.add(other);
-		
-		// Return the new array.
-		return new MurmurArray(copy);
+		// Append the element, sharing structure.
+		return new MurmurArray(persistent().append(other));
 	}
 
 	@Override
 	public MurmurObject opMinus(MurmurObject other) {
-		// Create a copy, and remove the element.
-		List<MurmurObject> copy = new ArrayList<>(elements);
-		copy.remove(other);
+		// Share the elements if there's nothing to remove.
+		PersistentVector vector = persistent();
+		int index = vector.indexOf(other);
+		if(index < 0) return new MurmurArray(vector);
 		
-		// Return the new array.
-		return new MurmurArray(copy);
+		// Rebuild without the element.
+		List<MurmurObject> copy = new ArrayList<>(vector);
+		copy.remove(index);
+		return new MurmurArray(PersistentVector.of(copy));
 	}
 
 	@Override
@@ -233,8 +639,7 @@ public class MurmurArray extends MurmurObject
 		// Check for supported type.
 		if(other.getType() == ARRAY) {
 			// Compare array contents for equality.
-			return MurmurBoolean.create(
-					elements.equals(((MurmurArray)other).elements));
+			return MurmurBoolean.create(equals(other));
 		}
 		
 		// Not equal.
@@ -246,8 +651,7 @@ public class MurmurArray extends MurmurObject
 		// Check for supported type.
 		if(other.getType() == ARRAY) {
 			// Compare array contents for equality.
-			return MurmurBoolean.create(!
-					elements.equals(((MurmurArray)other).elements));
+			return MurmurBoolean.create(!equals(other));
 		}
 		
 		// Not equal.
@@ -300,38 +704,61 @@ public class MurmurArray extends MurmurObject
 	public MurmurObject opIndex(MurmurObject other) {
 		// Check for supported type.
 		if(other.getType() == INTEGER) {
-			// TODO : Return an element reference.
-			long index = ((MurmurInteger)other).getValue();
-			
-			// Check for valid index.
-			if(index >= elements.size() ||
-					index < -elements.size()) {
-				throw new IndexOutOfBoundsException();
-			}
-			
-			// Handle negative indexing.
-			if(index > 0) {
-				return elements.get((int)index);
-			} else {
-				index = elements.size() + index;
-				return elements.get((int)index);
-			}
+			return getElement(other);
+		}
+		
+		// Check for a range of indices.
+		if(other.getType() == ARRAY &&
+				((MurmurArray)other).elements instanceof IntegerRange) {
+			IntegerRange range = (IntegerRange)((MurmurArray)other).elements;
+			return slice(range.getFirst(), range.getLast());
 		}
 		
 		// Unsupported.
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Resolves an element index, handling negative indexing.
+	 * 
+	 * @param other The index value.
+	 * @return The element's position in this array.
+	 */
+	private int getPosition(MurmurObject other) {
+		// Check for supported type.
+		if(other.getType() != INTEGER) {
+			throw new UnsupportedOperationException();
+		}
+		long index = ((MurmurInteger)other).getValue();
+		
+		// Check for valid index.
+		if(index >= elements.size() ||
+				index < -elements.size()) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		// Handle negative indexing.
+		return (int)(index >= 0 ? index : elements.size() + index);
+	}
+	
+	@Override
+	public MurmurObject getElement(MurmurObject index) {
+		return elements.get(getPosition(index));
+	}
+	
+	@Override
+	public void setElement(MurmurObject index, MurmurObject value) {
+		int position = getPosition(index);
+		writable(Collections.singletonList(value)).set(position, value);
+	}
+
 	@Override
 	public MurmurObject opConcat(MurmurObject other) {
 		// Check for array type.
 		if(other.getType() == ARRAY) {
-			// Create a new array, and append the other.
-			List<MurmurObject> copy = new ArrayList<>(elements);
-			copy.addAll(((MurmurArray)other).elements);
-			
-			// Return the new array.
-			return new MurmurArray(copy);
+			// Append the other's elements, sharing structure.
+			return new MurmurArray(persistent()
+					.appendAll(((MurmurArray)other).elements));
 		}
 		
 		// Concat single element.
@@ -341,14 +768,14 @@ public class MurmurArray extends MurmurObject
 	@Override
 	public MurmurObject opPlusAssign(MurmurObject other) {
 		// Append the element.
-		elements.add(other);
+		writable(Collections.singletonList(other)).add(other);
 		return this;
 	}
 
 	@Override
 	public MurmurObject opMinusAssign(MurmurObject other) {
 		// Remove the element.
-		elements.remove(other);
+		writable().remove(other);
 		return this;
 	}
 
@@ -404,23 +831,45 @@ public class MurmurArray extends MurmurObject
 	public MurmurObject opConcatAssign(MurmurObject other) {
 		if(other.getType() == ARRAY) {
 			// Append all elements.
-			elements.addAll(((MurmurArray)other).elements);
+			List<MurmurObject> added = ((MurmurArray)other).elements;
+			writable(added).addAll(added);
 		} else {
 			// Append the element.
-			elements.add(other);
+			writable(Collections.singletonList(other)).add(other);
 		}
 		return this;
 	}
 
 	@Override
 	public int hashCode() {
-		return elements.hashCode();
+		int cached = hash;
+		if(cached != 0) return cached;
+		
+		// Compute the hash, checking if it can be cached.
+		int result = 1;
+		boolean stable = true;
+		for(MurmurObject element : elements) {
+			result = 31 * result + element.hashCode();
+			stable &= FreezableType.isImmutable(element);
+		}
+		
+		// Cache the hash, if no element can change.
+		if(stable) {
+			hash = result;
+		}
+		return result;
 	}
 
 	@Override
 	public boolean equals(Object o) {
+		if(o == this) return true;
 		if(!(o instanceof MurmurArray)) return false;
-		return ((MurmurArray)o).elements.equals(elements);
+		
+		// Arrays with different hashes can't be equal.
+		MurmurArray other = (MurmurArray)o;
+		int left = hash, right = other.hash;
+		if(left != 0 && right != 0 && left != right) return false;
+		return other.elements.equals(elements);
 	}
 
 	@Override
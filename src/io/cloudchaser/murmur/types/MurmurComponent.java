@@ -24,12 +24,11 @@
 
 package io.cloudchaser.murmur.types;
 
-import io.cloudchaser.murmur.symbol.Symbol;
 import io.cloudchaser.murmur.symbol.SymbolContext;
 import static io.cloudchaser.murmur.types.MurmurType.TYPE;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -73,19 +72,6 @@ public class MurmurComponent extends MurmurObject
 			super(name, function);
 		}
 		
-		/**
-		 * Clones the component function.
-		 * 
-		 * @return 
-		 */
-		public MurmurFunction cloneFunction() {
-			return new MurmurFunction(
-					getValue().getDeclaringLine(),
-					getValue().getContext(),
-					getValue().getParameters(),
-					getValue().getBody());
-		}
-		
 	}
 	
 	/**
@@ -106,12 +92,27 @@ public class MurmurComponent extends MurmurObject
 	/**
 	 * The table of members defined in this component.
 	 */
-	private final Map<String, ComponentField> members;
+	private final Map<String, ComponentField<?>> members;
 	
 	/**
 	 * The list of components that make up this one, if any.
 	 */
 	private final List<MurmurComponent> components;
+	
+	/**
+	 * The interfaces this component declares conformance to.
+	 */
+	private final List<MurmurInterface> interfaces;
+	
+	/**
+	 * The field layout of this component's instances.
+	 */
+	private final ComponentShape shape;
+	
+	/**
+	 * The constructor plan of this component.
+	 */
+	private final ConstructorPlan plan;
 
 	public MurmurComponent(String name, int lineNumber, SymbolContext context) {
 		this(name, lineNumber, context, Collections.emptyList());
@@ -119,17 +120,52 @@ public class MurmurComponent extends MurmurObject
 	
 	public MurmurComponent(String name, int lineNumber,
 			SymbolContext context, List<MurmurComponent> components) {
+		this(name, lineNumber, context, components, Collections.emptyList());
+	}
+	
+	public MurmurComponent(String name, int lineNumber, SymbolContext context,
+			List<MurmurComponent> components, List<MurmurInterface> interfaces) {
+		this(name, lineNumber, context, components,
+				interfaces, Collections.emptyList());
+	}
+	
+	/**
+	 * Creates a component, flattening the members of the components it's
+	 * made up of into a single layout. Members keep the position of their
+	 * first declaration, so a first parent's slots are a prefix of this
+	 * component's slots. Later declarations replace earlier ones.
+	 * 
+	 * @param name The component name.
+	 * @param lineNumber The declaring line number.
+	 * @param context The declaring context.
+	 * @param components The components that make up this one.
+	 * @param interfaces The interfaces this component conforms to.
+	 * @param declared The members declared by this component.
+	 */
+	public MurmurComponent(String name, int lineNumber, SymbolContext context,
+			List<MurmurComponent> components, List<MurmurInterface> interfaces,
+			List<ComponentField<?>> declared) {
 		super(TYPE);
 		this.name = name;
 		this.lineNumber = lineNumber;
 		this.context = context;
 		this.components = components;
+		this.interfaces = interfaces;
 		
 		// Build memberlist.
-		members = new HashMap<>();
+		Map<String, ComponentField<?>> layout = new LinkedHashMap<>();
 		components.stream().forEach((component) -> {
-			members.putAll(component.getMembers());
+			layout.putAll(component.getMembers());
+		});
+		declared.stream().forEach((member) -> {
+			layout.put(member.getName(), member);
 		});
+		members = Collections.unmodifiableMap(layout);
+		
+		// Build the instance layout.
+		shape = new ComponentShape(members.values(), components.isEmpty() ?
+				null : components.get(0).getShape());
+		plan = new ConstructorPlan(this);
 	}
 	
 	public String getName() {
@@ -140,13 +176,37 @@ public class MurmurComponent extends MurmurObject
 		return context;
 	}
 	
-	public Map<String, ComponentField> getMembers() {
+	public Map<String, ComponentField<?>> getMembers() {
 		return members;
 	}
 	
 	public List<MurmurComponent> getComponents() {
 		return Collections.unmodifiableList(components);
 	}
+	
+	public List<MurmurInterface> getInterfaces() {
+		return Collections.unmodifiableList(interfaces);
+	}
+	
+	/**
+	 * Checks if this component, or one it's made up of, declares
+	 * conformance to an interface.
+	 * 
+	 * @param itype The interface type.
+	 * @return <code>true</code> if the interface is implemented.
+	 */
+	public boolean implementsInterface(MurmurInterface itype) {
+		return interfaces.stream().anyMatch((local) -> local.isSubtypeOf(itype)) ||
+				components.stream().anyMatch((parent) -> parent.implementsInterface(itype));
+	}
+	
+	public ComponentShape getShape() {
+		return shape;
+	}
+	
+	public ConstructorPlan getConstructorPlan() {
+		return plan;
+	}
 
 	@Override
 	public MurmurString asString() {
@@ -184,21 +244,19 @@ public class MurmurComponent extends MurmurObject
 	
 	@Override
 	public String getMethodSignature() {
-		// Get the constructor field.
-		ComponentField local = members.get("~ctor");
-		if(!(local instanceof ComponentFunction)) {
-			// This should never happen.
-			return name + "(...)";
+		// Get the constructor.
+		MurmurFunction ctor = getConstructorPlan().getConstructor();
+		if(ctor == null) {
+			return name + "()";
 		}
 		
 		// Return the constructor's method signature.
-		ComponentFunction ctor = (ComponentFunction)local;
 		StringBuilder builder = new StringBuilder(name);
 		builder.append("(");
 		
 		// Build the argument list.
-		if(!ctor.getValue().getParameters().isEmpty()) {
-			ctor.getValue().getParameters().stream()
+		if(!ctor.getParameters().isEmpty()) {
+			ctor.getParameters().stream()
 					.forEach(builder::append);
 		}
 		
@@ -208,24 +266,15 @@ public class MurmurComponent extends MurmurObject
 
 	@Override
 	public MurmurObject opInvoke(InvocationDelegate delegate, List<MurmurObject> args) {
-		// Create a new Murmur instance from this context.
-		MurmurInstance instance = new MurmurInstance(this);
-
-		// Lookup and call the construtor.
-		Symbol local = instance.getContext().getLocal("~ctor");
-		MurmurFunction ctor = (MurmurFunction)local.getValue();
-		
-		// Invoke the constructor.
-		delegate.invokeFunction(ctor.createLocal(args), ctor);
-		
-		// Return the created instance.
-		return instance;
+		// Create and return a new instance.
+		return getConstructorPlan().construct(delegate, args);
 	}
 
 	@Override
 	public String toString() {
 		return "MurmurComponent{name=" + name + ", context=" + context +
-				", members=" + members + ", components=" + components + '}';
+				", members=" + members + ", components=" + components +
+				", interfaces=" + interfaces + '}';
 	}
 	
 }
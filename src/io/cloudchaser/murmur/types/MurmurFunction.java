@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.antlr.v4.runtime.ParserRuleContext;
 
 /**
  *
@@ -47,14 +48,17 @@ public class MurmurFunction extends MurmurObject
 			implements SymbolContext {
 		
 		private final Map<String, Symbol> symbols;
+		
+		private final SymbolContext parent;
 
-		public FunctionLocalContext() {
+		public FunctionLocalContext(SymbolContext parent) {
 			this.symbols = new HashMap<>();
+			this.parent = parent;
 		}
 
 		@Override
 		public SymbolContext getParent() {
-			return context;
+			return parent;
 		}
 
 		@Override
@@ -65,8 +69,8 @@ public class MurmurFunction extends MurmurObject
 		@Override
 		public Symbol getSymbol(String name) {
 			Symbol symbol = symbols.get(name);
-			if(symbol == null && context != null)
-				return context.getSymbol(name);
+			if(symbol == null && parent != null)
+				return parent.getSymbol(name);
 			return symbol;
 		}
 
@@ -96,6 +100,12 @@ public class MurmurFunction extends MurmurObject
 	 * The function body parser context.
 	 **/
 	private final BlockContext body;
+	
+	/**
+	 * The parent methods referenced through <code>super</code>, by
+	 * member expression. Only set on component methods.
+	 **/
+	private Map<ParserRuleContext, MurmurFunction> superTargets;
 
 	public MurmurFunction(int lineNumber, SymbolContext context,
 			List<String> parameters, BlockContext body) {
@@ -126,12 +136,54 @@ public class MurmurFunction extends MurmurObject
 		return body;
 	}
 	
+	/**
+	 * Creates a copy of this function, bound to the given context.
+	 * 
+	 * @param context The context to bind to.
+	 * @return The bound function.
+	 */
+	public MurmurFunction bind(SymbolContext context) {
+		MurmurFunction function = new MurmurFunction(
+				lineNumber, context, parameters, body);
+		function.superTargets = superTargets;
+		return function;
+	}
+	
+	/**
+	 * Gets the parent method a <code>super</code> reference in this
+	 * function's body resolves to.
+	 * 
+	 * @param reference The <code>super.name</code> member expression.
+	 * @return The parent method, or <code>null</code> if not resolved.
+	 */
+	public MurmurFunction getSuperTarget(ParserRuleContext reference) {
+		return superTargets == null ? null : superTargets.get(reference);
+	}
+	
+	public void setSuperTargets(Map<ParserRuleContext, MurmurFunction> superTargets) {
+		this.superTargets = superTargets;
+	}
+	
 	public SymbolContext createLocal(List<MurmurObject> arguments) {
+		return createLocal(context, arguments);
+	}
+	
+	/**
+	 * Creates a local context for an invocation, with the given parent in
+	 * place of the declaration context. Used to call a method on a receiver
+	 * without binding a copy of the method to it.
+	 * 
+	 * @param parent The parent context.
+	 * @param arguments The invocation arguments.
+	 * @return The local context.
+	 */
+	public SymbolContext createLocal(SymbolContext parent,
+			List<MurmurObject> arguments) {
 		// Validate parameters match.
 		if((parameters.isEmpty() && arguments.isEmpty()) ||
 				(parameters.size() == arguments.size())) {
 			// Create a local context.
-			SymbolContext local = new FunctionLocalContext();
+			SymbolContext local = new FunctionLocalContext(parent);
 			
 			// Bind parameters.
 			for(int idx = 0; idx < arguments.size(); idx++) {
@@ -146,6 +198,21 @@ public class MurmurFunction extends MurmurObject
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Creates a local context for a prepared call, whose arguments have
+	 * already been checked against the parameter list.
+	 * 
+	 * @param arguments The invocation arguments.
+	 * @return The local context.
+	 */
+	SymbolContext createPreparedLocal(MurmurObject... arguments) {
+		SymbolContext local = new FunctionLocalContext(context);
+		for(int idx = 0; idx < arguments.length; idx++) {
+			local.addSymbol(new LetSymbol(parameters.get(idx), arguments[idx]));
+		}
+		return local;
+	}
+
 	@Override
 	public MurmurString asString() {
 		return MurmurString.create("function");
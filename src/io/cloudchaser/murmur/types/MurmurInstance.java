@@ -24,15 +24,14 @@
 
 package io.cloudchaser.murmur.types;
 
+import io.cloudchaser.murmur.MurmurError;
 import io.cloudchaser.murmur.symbol.FieldSymbol;
 import io.cloudchaser.murmur.symbol.FunctionSymbol;
 import io.cloudchaser.murmur.symbol.Symbol;
 import io.cloudchaser.murmur.symbol.SymbolContext;
-import io.cloudchaser.murmur.types.MurmurComponent.ComponentFunction;
 import static io.cloudchaser.murmur.types.MurmurType.OBJECT;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  *
@@ -40,34 +39,37 @@ import java.util.Map;
  * @since 0.1
  */
 public class MurmurInstance extends MurmurObject
-		implements ReferenceType {
+		implements ReferenceType, FreezableType {
 	
+	/**
+	 * A view of an instance as a symbol context. Fields resolve to their
+	 * slots, and methods to bound copies from the component's method table.
+	 */
 	private class InstanceLocalContext
 			implements SymbolContext {
 		
-		private final Map<String, Symbol> symbols;
-
-		public InstanceLocalContext() {
-			symbols = new HashMap<>();
+		/**
+		 * Creates a reference to a field slot, if the field exists.
+		 * 
+		 * @param name The field name.
+		 * @return The field symbol, or <code>null</code>.
+		 */
+		private Symbol getField(String name) {
+			int slot = getShape().getSlot(name);
+			return slot < 0 ? null :
+					new FieldSymbol(name, MurmurInstance.this, slot);
 		}
 		
-		protected void build() {
-			component.getMembers().values()
-					.stream().forEach((value) -> {
-				// Check if this is a function.
-				if(value instanceof ComponentFunction) {
-					// Bind the function to the local context.
-					ComponentFunction function = (ComponentFunction)value;
-					function.getValue().setContext(this);
-					
-					// Create a function symbol.
-					addSymbol(new FunctionSymbol(value.getName(),
-							function.cloneFunction(), component));
-				} else {
-					// Create a field symbol.
-					addSymbol(new FieldSymbol(value.getName(), component));
-				}
-			});
+		/**
+		 * Binds a method to this instance, if the method exists.
+		 * 
+		 * @param name The method name.
+		 * @return The function symbol, or <code>null</code>.
+		 */
+		private Symbol getMethod(String name) {
+			MurmurFunction method = getShape().getMethod(name);
+			return method == null ? null :
+					new FunctionSymbol(name, method.bind(this), component);
 		}
 
 		@Override
@@ -77,12 +79,17 @@ public class MurmurInstance extends MurmurObject
 
 		@Override
 		public void addSymbol(Symbol symbol) {
-			symbols.put(symbol.getName(), symbol);
+			// Instances only hold their declared fields.
+			Symbol field = getField(symbol.getName());
+			if(field == null) {
+				throw new UnsupportedOperationException();
+			}
+			field.setValue(symbol.getValue());
 		}
 
 		@Override
 		public Symbol getSymbol(String name) {
-			Symbol symbol = symbols.get(name);
+			Symbol symbol = getLocal(name);
 			if(symbol == null && getParent() != null)
 				return getParent().getSymbol(name);
 			return symbol;
@@ -90,243 +97,370 @@ public class MurmurInstance extends MurmurObject
 
 		@Override
 		public Symbol getLocal(String name) {
-			return symbols.get(name);
+			if(name.equals("this")) {
+				return new FieldSymbol("this", MurmurInstance.this, null);
+			}
+			
+			Symbol symbol = getField(name);
+			return symbol != null ? symbol : getMethod(name);
 		}
 		
 	}
 	
 	/**
-	 * The symbol context local to this object.
+	 * This object's component type.
 	 */
-	private final SymbolContext context;
+	private final MurmurComponent component;
 	
 	/**
-	 * This object's component type.
+	 * Field storage, laid out by the component's shape.
 	 */
-	private final MurmurComponent component;
+	protected final MurmurObject[] fields;
+	
+	/**
+	 * Whether this instance has been frozen.
+	 */
+	private volatile boolean frozen;
+	
+	/**
+	 * The cached hash code, or <code>0</code> if it isn't cached. Only
+	 * cached when every field is immutable, and reset when a field changes.
+	 */
+	private int hash;
 
 	public MurmurInstance(MurmurComponent component) {
+		this(component, component.getShape().createFields());
+	}
+	
+	MurmurInstance(MurmurComponent component, MurmurObject[] fields) {
 		super(OBJECT);
 		this.component = component;
-		
-		// Build the local context.
-		context = new InstanceLocalContext();
-		((InstanceLocalContext)context).build();
-		context.addSymbol(new FieldSymbol("this", this, null));
+		this.fields = fields;
 	}
 	
+	/**
+	 * Gets a symbol context view of this instance, used as the parent
+	 * context of its method invocations.
+	 * 
+	 * @return The instance context.
+	 */
 	public SymbolContext getContext() {
-		return context;
+		return new InstanceLocalContext();
 	}
 	
 	public MurmurComponent getComponentType() {
 		return component;
 	}
 	
+	public ComponentShape getShape() {
+		return component.getShape();
+	}
+	
+	public MurmurObject getField(int slot) {
+		return fields[slot];
+	}
+	
+	public void setField(int slot, MurmurObject value) {
+		if(frozen) {
+			throw new MurmurError(MurmurError.FROZEN);
+		}
+		fields[slot] = value;
+		hash = 0;
+	}
+	
+	@Override
+	public void freeze() {
+		if(frozen) return;
+		frozen = true;
+		
+		// Freeze the field values.
+		for(MurmurObject field : fields) {
+			FreezableType.freeze(field);
+		}
+	}
+	
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+	
 	@Override
 	public MurmurObject getMember(String name) {
-		Symbol symbol = context.getLocal(name);
-		return symbol == null ? MurmurVoid.VOID : symbol;
+		Symbol symbol = getContext().getLocal(name);
+		if(symbol != null) return symbol;
+		
+		// Check for native members.
+		switch(name) {
+			case "freeze":
+				return FreezableType.freezeMethod(this);
+			case "isFrozen":
+				return FreezableType.isFrozenMethod(this);
+			default:
+				return MurmurVoid.VOID;
+		}
+	}
+
+	/**
+	 * Creates an error for an operator this instance's component doesn't
+	 * define. The line is filled in by the statement being evaluated.
+	 * 
+	 * @param operator The operator's method name.
+	 * @return The Murmur error.
+	 */
+	private MurmurError undefined(String operator) {
+		MurmurError error = new MurmurError(MurmurError.OPERATOR_NOT_DEFINED);
+		error.setLineText("\t(Not defined: " + component.getName() + "." + operator + ")");
+		return error;
 	}
 
 	@Override
 	public MurmurInteger asInteger() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("asInteger");
 	}
 
 	@Override
 	public MurmurDecimal asDecimal() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("asDecimal");
 	}
 
 	@Override
 	public MurmurString asString() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		return MurmurString.create(component.getName());
 	}
 
 	@Override
 	public MurmurObject opPositive() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opPositive");
 	}
 
 	@Override
 	public MurmurObject opNegative() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opNegative");
 	}
 
 	@Override
 	public MurmurObject opIncrement() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opIncrement");
 	}
 
 	@Override
 	public MurmurObject opDecrement() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opDecrement");
 	}
 
 	@Override
 	public MurmurObject opPlus(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opPlus");
 	}
 
 	@Override
 	public MurmurObject opMinus(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opMinus");
 	}
 
 	@Override
 	public MurmurObject opMultiply(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opMultiply");
 	}
 
 	@Override
 	public MurmurObject opDivide(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opDivide");
 	}
 
 	@Override
 	public MurmurObject opModulo(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opModulo");
 	}
 
 	@Override
 	public MurmurObject opShiftLeft(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opShiftLeft");
 	}
 
 	@Override
 	public MurmurObject opShiftRight(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opShiftRight");
 	}
 
 	@Override
 	public MurmurObject opLessThan(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opLessThan");
 	}
 
 	@Override
 	public MurmurObject opGreaterThan(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opGreaterThan");
 	}
 
 	@Override
 	public MurmurObject opLessOrEqual(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opLessOrEqual");
 	}
 
 	@Override
 	public MurmurObject opGreaterOrEqual(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opGreaterOrEqual");
+	}
+
+	/**
+	 * Checks if another object is an instance of the same shape, with
+	 * equal field values.
+	 * 
+	 * @param other The other object.
+	 * @return <code>true</code> if the instances are equal.
+	 */
+	private boolean fieldsEqual(Object other) {
+		if(other == this) return true;
+		if(!(other instanceof MurmurInstance)) return false;
+		
+		// Instances with different hashes can't be equal.
+		MurmurInstance instance = (MurmurInstance)other;
+		int left = hash, right = instance.hash;
+		if(left != 0 && right != 0 && left != right) return false;
+		return instance.getShape() == getShape() &&
+				Arrays.equals(instance.fields, fields);
 	}
 
 	@Override
 	public MurmurObject opEquals(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		if(other instanceof InterfaceView) {
+			other = ((InterfaceView)other).getInstance();
+		}
+		return MurmurBoolean.create(fieldsEqual(other));
 	}
 
 	@Override
 	public MurmurObject opNotEquals(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		if(other instanceof InterfaceView) {
+			other = ((InterfaceView)other).getInstance();
+		}
+		return MurmurBoolean.create(!fieldsEqual(other));
+	}
+
+	@Override
+	public int hashCode() {
+		int cached = hash;
+		if(cached != 0) return cached;
+		
+		// Compute the hash, checking if it can be cached.
+		int result = getShape().hashCode();
+		boolean stable = true;
+		for(MurmurObject field : fields) {
+			result = 31 * result + field.hashCode();
+			stable &= FreezableType.isImmutable(field);
+		}
+		
+		// Cache the hash, if no field can change.
+		if(stable) {
+			hash = result;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return fieldsEqual(o);
 	}
 
 	@Override
 	public MurmurObject opBitNot() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opBitNot");
 	}
 
 	@Override
 	public MurmurObject opBitAnd(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opBitAnd");
 	}
 
 	@Override
 	public MurmurObject opBitXor(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opBitXor");
 	}
 
 	@Override
 	public MurmurObject opBitOr(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opBitOr");
 	}
 
 	@Override
 	public MurmurObject opLogicalNot() {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opLogicalNot");
 	}
 
 	@Override
 	public MurmurObject opLogicalAnd(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opLogicalAnd");
 	}
 
 	@Override
 	public MurmurObject opLogicalOr(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opLogicalOr");
 	}
 
 	@Override
 	public MurmurObject opIndex(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opIndex");
 	}
 
 	@Override
 	public MurmurObject opPlusAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opPlusAssign");
 	}
 
 	@Override
 	public MurmurObject opMinusAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opMinusAssign");
 	}
 
 	@Override
 	public MurmurObject opMultiplyAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opMultiplyAssign");
 	}
 
 	@Override
 	public MurmurObject opDivideAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opDivideAssign");
 	}
 
 	@Override
 	public MurmurObject opModuloAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opModuloAssign");
 	}
 
 	@Override
 	public MurmurObject opBitAndAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opBitAndAssign");
 	}
 
 	@Override
 	public MurmurObject opBitXorAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opBitXorAssign");
 	}
 
 	@Override
 	public MurmurObject opBitOrAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opBitOrAssign");
 	}
 
 	@Override
 	public MurmurObject opShiftLeftAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opShiftLeftAssign");
 	}
 
 	@Override
 	public MurmurObject opShiftRightAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opShiftRightAssign");
 	}
 
 	@Override
 	public MurmurObject opConcatAssign(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opConcatAssign");
 	}
 
 	@Override
 	public MurmurObject opConcat(MurmurObject other) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		throw undefined("opConcat");
 	}
 	
 }
@@ -0,0 +1,262 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import static io.cloudchaser.murmur.types.MurmurType.TYPE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An interface type. Components declare conformance to an interface by
+ * listing it as a parent, and invoking the interface on an instance of a
+ * conforming component produces a view that dispatches through an itable.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class MurmurInterface extends MurmurObject
+		implements InvokableType {
+	
+	public static class InterfaceFunction {
+		
+		private final String name;
+		private final int parameterCount;
+
+		public InterfaceFunction(String name, int parameterCount) {
+			this.name = name;
+			this.parameterCount = parameterCount;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getParameterCount() {
+			return parameterCount;
+		}
+		
+		/**
+		 * Checks if a function is compatible with this declaration.
+		 * 
+		 * @param function The function, or <code>null</code>.
+		 * @return <code>true</code> if the function is compatible.
+		 */
+		public boolean isImplementedBy(MurmurFunction function) {
+			return function != null &&
+					function.getParameterCount() == parameterCount;
+		}
+		
+	}
+	
+	/**
+	 * The declared name of this interface.
+	 */
+	private final String name;
+	
+	/**
+	 * The declaring line number of this interface.
+	 */
+	private final int lineNumber;
+	
+	/**
+	 * The interfaces this one extends.
+	 */
+	private final List<MurmurInterface> parents;
+	
+	/**
+	 * The functions of this interface, by itable slot.
+	 */
+	private final InterfaceFunction[] functions;
+	
+	/**
+	 * The itable slot of each function, by name.
+	 */
+	private final Map<String, Integer> slots;
+	
+	/**
+	 * The resolved itable of each conforming component.
+	 */
+	private final Map<MurmurComponent, MurmurFunction[]> itables;
+
+	public MurmurInterface(String name, int lineNumber,
+			List<MurmurInterface> parents, List<InterfaceFunction> declared) {
+		super(TYPE);
+		this.name = name;
+		this.lineNumber = lineNumber;
+		this.parents = parents;
+		this.itables = new IdentityHashMap<>();
+		
+		// Inherited functions come first.
+		Map<String, InterfaceFunction> members = new HashMap<>();
+		List<InterfaceFunction> ordered = new ArrayList<>();
+		parents.stream().forEach((parent) -> {
+			for(InterfaceFunction function : parent.functions) {
+				if(members.put(function.getName(), function) == null) {
+					ordered.add(function);
+				}
+			}
+		});
+		declared.stream().forEach((function) -> {
+			InterfaceFunction old = members.put(function.getName(), function);
+			if(old != null) {
+				ordered.set(ordered.indexOf(old), function);
+			} else {
+				ordered.add(function);
+			}
+		});
+		
+		// Assign itable slots.
+		functions = ordered.toArray(new InterfaceFunction[ordered.size()]);
+		slots = new HashMap<>();
+		for(int idx = 0; idx < functions.length; idx++) {
+			slots.put(functions[idx].getName(), idx);
+		}
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public List<MurmurInterface> getParents() {
+		return Collections.unmodifiableList(parents);
+	}
+	
+	public List<InterfaceFunction> getFunctions() {
+		return Collections.unmodifiableList(Arrays.asList(functions));
+	}
+	
+	/**
+	 * Gets the itable slot of a function.
+	 * 
+	 * @param name The function name.
+	 * @return The slot index, or <code>-1</code> if there's no such function.
+	 */
+	public int getSlot(String name) {
+		Integer slot = slots.get(name);
+		return slot == null ? -1 : slot;
+	}
+	
+	/**
+	 * Checks if this interface is, or extends, another interface.
+	 * 
+	 * @param other The other interface.
+	 * @return <code>true</code> if this is a subtype of the other.
+	 */
+	public boolean isSubtypeOf(MurmurInterface other) {
+		return this == other || parents.stream()
+				.anyMatch((parent) -> parent.isSubtypeOf(other));
+	}
+	
+	/**
+	 * Gets the itable for a component, resolving it on first use.
+	 * 
+	 * @param component The component type.
+	 * @return The itable, or <code>null</code> if the component doesn't
+	 * conform to this interface.
+	 */
+	public synchronized MurmurFunction[] getTable(MurmurComponent component) {
+		MurmurFunction[] table = itables.get(component);
+		if(table != null || !component.implementsInterface(this)) {
+			return table;
+		}
+		
+		// Resolve each function from the method table.
+		ComponentShape shape = component.getShape();
+		table = new MurmurFunction[functions.length];
+		for(int idx = 0; idx < functions.length; idx++) {
+			table[idx] = shape.getMethod(functions[idx].getName());
+			if(!functions[idx].isImplementedBy(table[idx])) {
+				return null;
+			}
+		}
+		
+		itables.put(component, table);
+		return table;
+	}
+
+	@Override
+	public MurmurString asString() {
+		return MurmurString.create(name);
+	}
+
+	@Override
+	public MurmurObject opEquals(MurmurObject other) {
+		return MurmurBoolean.create(this == other);
+	}
+
+	@Override
+	public MurmurObject opNotEquals(MurmurObject other) {
+		return MurmurBoolean.create(this != other);
+	}
+
+	@Override
+	public int getDeclaringLine() {
+		return lineNumber;
+	}
+
+	@Override
+	public String getMethodSignature() {
+		return name + "(object)";
+	}
+
+	@Override
+	public MurmurObject opInvoke(InvocationDelegate delegate,
+			List<MurmurObject> args) {
+		if(args.size() != 1) {
+			throw new UnsupportedOperationException();
+		}
+		
+		// Unwrap existing views.
+		MurmurObject object = args.get(0);
+		if(object instanceof InterfaceView) {
+			object = ((InterfaceView)object).getInstance();
+		}
+		
+		// Check that the instance conforms.
+		if(object instanceof MurmurInstance) {
+			MurmurInstance instance = (MurmurInstance)object;
+			MurmurFunction[] table = getTable(instance.getComponentType());
+			if(table != null) {
+				return new InterfaceView(this, instance, table);
+			}
+		}
+		
+		// Not an instance of this interface.
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String toString() {
+		return "MurmurInterface{name=" + name + ", functions=" +
+				slots.keySet() + ", parents=" + parents + '}';
+	}
+	
+}
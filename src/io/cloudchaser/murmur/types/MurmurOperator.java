@@ -0,0 +1,258 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+/**
+ * Binary operators that the interpreter can specialize on primitive operands.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ **/
+public enum MurmurOperator {
+	
+	PLUS("+") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opPlus(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurInteger.create(left + right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurDecimal.create(left + right);
+		}
+	},
+	
+	MINUS("-") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opMinus(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurInteger.create(left - right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurDecimal.create(left - right);
+		}
+	},
+	
+	MULTIPLY("*") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opMultiply(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurInteger.create(left * right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurDecimal.create(left * right);
+		}
+	},
+	
+	DIVIDE("/") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opDivide(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurInteger.create(left / right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurDecimal.create(left / right);
+		}
+	},
+	
+	MODULO("%") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opModulo(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurInteger.create(left % right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurDecimal.create(left % right);
+		}
+	},
+	
+	LESS_THAN("<") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opLessThan(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurBoolean.create(left < right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurBoolean.create(left < right);
+		}
+	},
+	
+	GREATER_THAN(">") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opGreaterThan(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurBoolean.create(left > right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurBoolean.create(left > right);
+		}
+	},
+	
+	LESS_OR_EQUAL("<=") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opLessOrEqual(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurBoolean.create(left <= right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurBoolean.create(left <= right);
+		}
+	},
+	
+	GREATER_OR_EQUAL(">=") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opGreaterOrEqual(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurBoolean.create(left >= right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurBoolean.create(left >= right);
+		}
+	},
+	
+	EQUALS("==") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opEquals(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurBoolean.create(left == right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurBoolean.create(left == right);
+		}
+	},
+	
+	NOT_EQUALS("!=") {
+		@Override
+		public MurmurObject apply(MurmurObject left, MurmurObject right) {
+			return left.opNotEquals(right);
+		}
+		
+		@Override
+		public MurmurObject apply(long left, long right) {
+			return MurmurBoolean.create(left != right);
+		}
+		
+		@Override
+		public MurmurObject apply(double left, double right) {
+			return MurmurBoolean.create(left != right);
+		}
+	};
+	
+	/**
+	 * The operator's source symbol.
+	 **/
+	public final String symbol;
+	
+	MurmurOperator(String symbol) {
+		this.symbol = symbol;
+	}
+	
+	/**
+	 * Applies the operator to two arbitrary Murmur objects.
+	 * 
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @return The result of the operation.
+	 */
+	public abstract MurmurObject apply(MurmurObject left, MurmurObject right);
+	
+	/**
+	 * Applies the operator to two integer values.
+	 * 
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @return The result of the operation.
+	 */
+	public abstract MurmurObject apply(long left, long right);
+	
+	/**
+	 * Applies the operator to two decimal values.
+	 * 
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @return The result of the operation.
+	 */
+	public abstract MurmurObject apply(double left, double right);
+	
+}
@@ -0,0 +1,62 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+/**
+ * An instance of a component with no methods besides its constructor.
+ * Records have no behaviour of their own, and print as their field values.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class MurmurRecord extends MurmurInstance {
+
+	MurmurRecord(MurmurComponent component, MurmurObject[] fields) {
+		super(component, fields);
+	}
+	
+	@Override
+	public MurmurString asString() {
+		StringBuilder builder = new StringBuilder(getComponentType().getName());
+		builder.append("{");
+		
+		// Build the field list.
+		ComponentShape shape = getShape();
+		for(int idx = 0; idx < fields.length; idx++) {
+			if(idx > 0) builder.append(", ");
+			builder.append(shape.getFieldName(idx)).append("=")
+					.append(fields[idx].asString().getValue());
+		}
+		
+		builder.append("}");
+		return MurmurString.create(builder.toString());
+	}
+
+	@Override
+	public String toString() {
+		return "MurmurRecord{" + asString().getValue() + '}';
+	}
+	
+}
@@ -0,0 +1,392 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import static io.cloudchaser.murmur.types.MurmurType.OBJECT;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * A lazy sequence of values. Operations on a sequence build a pipeline
+ * which pulls values from its source one at a time, and only when the
+ * sequence is consumed, so only as much of the source is read as the
+ * consumer needs.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class MurmurSequence extends MurmurObject {
+	
+	/**
+	 * The source of a sequence's values.
+	 */
+	@FunctionalInterface
+	public static interface Source {
+		
+		/**
+		 * Starts reading the values.
+		 * 
+		 * @return An iterator over the values.
+		 */
+		Iterator<MurmurObject> iterator();
+		
+	}
+	
+	/**
+	 * An iterator over pulled values, ending at the first null.
+	 */
+	private static class Pull implements Iterator<MurmurObject> {
+		
+		private final Supplier<MurmurObject> supplier;
+		
+		private MurmurObject next;
+		
+		private boolean ready;
+
+		Pull(Supplier<MurmurObject> supplier) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(!ready) {
+				next = supplier.get();
+				ready = true;
+			}
+			return next != null;
+		}
+
+		@Override
+		public MurmurObject next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ready = false;
+			return next;
+		}
+		
+	}
+	
+	/**
+	 * The global <code>Sequence</code> object, which creates sequences.
+	 */
+	public static final MurmurObject FACTORY = new MurmurObject(OBJECT) {
+		
+		@Override
+		public MurmurObject getMember(String name) {
+			switch(name) {
+				case "of":
+					return new NativeMethod(name, 1, (delegate, args) ->
+							of(args.get(0)));
+				case "range":
+					return new NativeMethod(name, 1, 2, (delegate, args) -> {
+						long first = args.get(0).asInteger().getValue();
+						long last = args.size() < 2 ? Long.MAX_VALUE :
+								args.get(1).asInteger().getValue();
+						return range(first, last);
+					});
+				case "iterate":
+					return new NativeMethod(name, 2, (delegate, args) -> {
+						MurmurObject seed = args.get(0);
+						PreparedCall call = new PreparedCall(delegate, args.get(1), 1);
+						return new MurmurSequence(() -> {
+							MurmurObject[] current = { null };
+							return new Pull(() -> current[0] = current[0] == null ?
+									seed : call.invoke(current[0]));
+						});
+					});
+				case "generate":
+					return new NativeMethod(name, 1, (delegate, args) -> {
+						PreparedCall call = new PreparedCall(delegate, args.get(0), 0);
+						return new MurmurSequence(() -> new Pull(() -> {
+							// Null or void ends the sequence.
+							MurmurObject value = call.invoke();
+							return value == MurmurNull.NULL ||
+									value == MurmurVoid.VOID ? null : value;
+						}));
+					});
+				default:
+					return super.getMember(name);
+			}
+		}
+
+		@Override
+		public MurmurString asString() {
+			return MurmurString.create("Sequence");
+		}
+		
+	};
+	
+	/**
+	 * The source of this sequence's values.
+	 */
+	private final Source source;
+
+	public MurmurSequence(Source source) {
+		super(OBJECT);
+		this.source = source;
+	}
+	
+	/**
+	 * Creates a sequence over a value's elements. Arrays and sequences are
+	 * supported, as are Java iterables, iterators and streams. Iterators
+	 * and streams can only be read once.
+	 * 
+	 * @param value The value.
+	 * @return The sequence.
+	 */
+	public static MurmurSequence of(MurmurObject value) {
+		// Check for Murmur values.
+		if(value instanceof MurmurSequence) {
+			return (MurmurSequence)value;
+		} else if(value instanceof MurmurArray) {
+			return new MurmurSequence(((MurmurArray)value).snapshot()::iterator);
+		}
+		
+		// Check for Java values.
+		if(value instanceof JavaInstance) {
+			Object instance = ((JavaInstance)value).getInstance();
+			if(instance instanceof Iterable) {
+				return ofJava(((Iterable<?>)instance)::iterator);
+			} else if(instance instanceof Iterator) {
+				return ofJava(() -> (Iterator<?>)instance);
+			} else if(instance instanceof BaseStream) {
+				return ofJava(((BaseStream<?, ?>)instance)::iterator);
+			}
+		}
+		
+		// Unsupported.
+		throw new UnsupportedOperationException();
+	}
+	
+	private static MurmurSequence ofJava(Supplier<Iterator<?>> iterable) {
+		return new MurmurSequence(() -> {
+			Iterator<?> iterator = iterable.get();
+			return new Pull(() -> iterator.hasNext() ?
+					JavaTypeUtils.getAsMurmurObject(iterator.next()) : null);
+		});
+	}
+	
+	/**
+	 * Creates a sequence of the integers in an inclusive range.
+	 * 
+	 * @param first The first integer.
+	 * @param last The last integer.
+	 * @return The sequence.
+	 */
+	public static MurmurSequence range(long first, long last) {
+		return new MurmurSequence(() -> {
+			long[] next = { first };
+			return new Pull(() -> next[0] > last || next[0] < first ?
+					null : MurmurInteger.create(next[0]++));
+		});
+	}
+	
+	public Iterator<MurmurObject> iterator() {
+		return source.iterator();
+	}
+	
+	/**
+	 * Creates a sequence pulling values from this one.
+	 * 
+	 * @param stage Creates the pull function, given this sequence's iterator.
+	 * @return The new sequence.
+	 */
+	private MurmurSequence then(Function<Iterator<MurmurObject>,
+			Supplier<MurmurObject>> stage) {
+		return new MurmurSequence(() -> new Pull(stage.apply(source.iterator())));
+	}
+	
+	public MurmurSequence map(PreparedCall call) {
+		return then((values) -> () ->
+				values.hasNext() ? call.invoke(values.next()) : null);
+	}
+	
+	public MurmurSequence filter(PreparedCall call) {
+		return then((values) -> () -> {
+			while(values.hasNext()) {
+				MurmurObject value = values.next();
+				if(call.test(value)) return value;
+			}
+			return null;
+		});
+	}
+	
+	public MurmurSequence take(long count) {
+		return then((values) -> {
+			long[] remaining = { count };
+			return () -> remaining[0]-- > 0 && values.hasNext() ?
+					values.next() : null;
+		});
+	}
+	
+	public MurmurSequence drop(long count) {
+		return then((values) -> {
+			long[] skipped = { count };
+			return () -> {
+				// Skip values on the first pull.
+				for(; skipped[0] > 0 && values.hasNext(); skipped[0]--) {
+					values.next();
+				}
+				return values.hasNext() ? values.next() : null;
+			};
+		});
+	}
+	
+	/**
+	 * Pairs this sequence's values with another's, ending with the shorter
+	 * of the two.
+	 * 
+	 * @param other The other sequence.
+	 * @param call Combines each pair, or null to create pair arrays.
+	 * @return The new sequence.
+	 */
+	public MurmurSequence zip(MurmurSequence other, PreparedCall call) {
+		return then((values) -> {
+			Iterator<MurmurObject> others = other.iterator();
+			return () -> {
+				if(!values.hasNext() || !others.hasNext()) return null;
+				MurmurObject left = values.next();
+				MurmurObject right = others.next();
+				
+				// Combine or pair the values.
+				if(call != null) return call.invoke(left, right);
+				List<MurmurObject> pair = new ArrayList<>(2);
+				pair.add(left);
+				pair.add(right);
+				return new MurmurArray(pair);
+			};
+		});
+	}
+	
+	/**
+	 * Reads every value into an array.
+	 * 
+	 * @return The array of values.
+	 */
+	public MurmurArray toArray() {
+		List<MurmurObject> values = new ArrayList<>();
+		source.iterator().forEachRemaining(values::add);
+		return new MurmurArray(values);
+	}
+
+	@Override
+	public MurmurObject getMember(String name) {
+		switch(name) {
+			case "map":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						map(new PreparedCall(delegate, args.get(0), 1)));
+			case "filter":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						filter(new PreparedCall(delegate, args.get(0), 1)));
+			case "take":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						take(args.get(0).asInteger().getValue()));
+			case "drop":
+				return new NativeMethod(name, 1, (delegate, args) ->
+						drop(args.get(0).asInteger().getValue()));
+			case "zip":
+				return new NativeMethod(name, 1, 2, (delegate, args) ->
+						zip(of(args.get(0)), args.size() < 2 ? null :
+								new PreparedCall(delegate, args.get(1), 2)));
+			case "toArray":
+				return new NativeMethod(name, 0, (delegate, args) -> toArray());
+			case "first":
+				return new NativeMethod(name, 0, (delegate, args) -> {
+					Iterator<MurmurObject> values = source.iterator();
+					return values.hasNext() ? values.next() : MurmurNull.NULL;
+				});
+			case "count":
+				return new NativeMethod(name, 0, (delegate, args) -> {
+					long count = 0;
+					for(Iterator<MurmurObject> values = source.iterator();
+							values.hasNext(); values.next()) {
+						count++;
+					}
+					return MurmurInteger.create(count);
+				});
+			case "forEach":
+				return new NativeMethod(name, 1, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 1);
+					source.iterator().forEachRemaining(call::invoke);
+					return MurmurVoid.VOID;
+				});
+			case "reduce":
+				return new NativeMethod(name, 2, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 2);
+					MurmurObject result = args.get(1);
+					for(Iterator<MurmurObject> values = source.iterator(); values.hasNext();) {
+						result = call.invoke(result, values.next());
+					}
+					return result;
+				});
+			case "any":
+				return new NativeMethod(name, 1, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 1);
+					for(Iterator<MurmurObject> values = source.iterator(); values.hasNext();) {
+						if(call.test(values.next())) return MurmurBoolean.TRUE;
+					}
+					return MurmurBoolean.FALSE;
+				});
+			case "all":
+				return new NativeMethod(name, 1, (delegate, args) -> {
+					PreparedCall call = new PreparedCall(delegate, args.get(0), 1);
+					for(Iterator<MurmurObject> values = source.iterator(); values.hasNext();) {
+						if(!call.test(values.next())) return MurmurBoolean.FALSE;
+					}
+					return MurmurBoolean.TRUE;
+				});
+			default:
+				return super.getMember(name);
+		}
+	}
+
+	@Override
+	public MurmurString asString() {
+		return MurmurString.create("sequence");
+	}
+
+	@Override
+	public MurmurObject opEquals(MurmurObject other) {
+		return MurmurBoolean.create(this == other);
+	}
+
+	@Override
+	public MurmurObject opNotEquals(MurmurObject other) {
+		return MurmurBoolean.create(this != other);
+	}
+
+	@Override
+	public String toString() {
+		return "MurmurSequence{source=" + source + '}';
+	}
+	
+}
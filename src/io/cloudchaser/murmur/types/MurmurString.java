@@ -141,6 +141,17 @@ public class MurmurString extends MurmurObject {
 		return MurmurString.create(value + string.value);
 	}
 
+	@Override
+	public int hashCode() {
+		return value.hashCode();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(!(o instanceof MurmurString)) return false;
+		return ((MurmurString)o).value.equals(value);
+	}
+
 	@Override
 	public String toString() {
 		return "MurmurString{value=" + value + '}';
@@ -0,0 +1,154 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import static io.cloudchaser.murmur.types.MurmurType.FUNCTION;
+
+import java.util.List;
+
+/**
+ * A built-in member function, implemented in Java.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public class NativeMethod extends MurmurObject
+		implements InvokableType {
+	
+	/**
+	 * The implementation of a native method.
+	 */
+	@FunctionalInterface
+	public static interface Body {
+		
+		/**
+		 * Invokes the native method.
+		 * 
+		 * @param delegate The delegate handling nested invocations.
+		 * @param args The list of arguments being passed.
+		 * @return The result of the invocation.
+		 */
+		MurmurObject invoke(InvocationDelegate delegate, List<MurmurObject> args);
+		
+	}
+	
+	/**
+	 * The name of this method.
+	 */
+	private final String name;
+	
+	/**
+	 * The number of parameters this method takes.
+	 */
+	private final int parameterCount;
+	
+	/**
+	 * The number of parameters which must be passed.
+	 */
+	private final int requiredCount;
+	
+	/**
+	 * The method implementation.
+	 */
+	private final Body body;
+
+	public NativeMethod(String name, int parameterCount, Body body) {
+		this(name, parameterCount, parameterCount, body);
+	}
+	
+	/**
+	 * Creates a native method with optional trailing parameters.
+	 * 
+	 * @param name The method name.
+	 * @param requiredCount The number of parameters which must be passed.
+	 * @param parameterCount The number of parameters this method takes.
+	 * @param body The method implementation.
+	 */
+	public NativeMethod(String name, int requiredCount,
+			int parameterCount, Body body) {
+		super(FUNCTION);
+		this.name = name;
+		this.requiredCount = requiredCount;
+		this.parameterCount = parameterCount;
+		this.body = body;
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public int getParameterCount() {
+		return parameterCount;
+	}
+	
+	/**
+	 * Checks if this method can be passed the given number of arguments.
+	 * 
+	 * @param count The number of arguments.
+	 * @return <code>true</code> if the count is accepted.
+	 */
+	public boolean accepts(int count) {
+		return count >= requiredCount && count <= parameterCount;
+	}
+
+	@Override
+	public MurmurString asString() {
+		return MurmurString.create("function");
+	}
+
+	@Override
+	public MurmurObject opEquals(MurmurObject other) {
+		return MurmurBoolean.create(this == other);
+	}
+
+	@Override
+	public MurmurObject opNotEquals(MurmurObject other) {
+		return MurmurBoolean.create(this != other);
+	}
+
+	@Override
+	public int getDeclaringLine() {
+		// Native methods have no source line.
+		return 0;
+	}
+
+	@Override
+	public String getMethodSignature() {
+		return "<native>" + name + "(" + (requiredCount == parameterCount ?
+				parameterCount : requiredCount + ".." + parameterCount) + ")";
+	}
+
+	@Override
+	public MurmurObject opInvoke(InvocationDelegate delegate,
+			List<MurmurObject> args) {
+		// Validate parameters match.
+		if(!accepts(args.size())) {
+			throw new UnsupportedOperationException();
+		}
+		
+		return body.invoke(delegate, args);
+	}
+	
+}
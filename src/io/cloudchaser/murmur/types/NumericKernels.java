@@ -0,0 +1,79 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.types.NumericOps.Arithmetic;
+import io.cloudchaser.murmur.types.NumericOps.Comparison;
+
+/**
+ * The loops behind the numeric array operations. Each kernel reads the
+ * first <code>size</code> values of its unboxed arrays, and writes any
+ * results into the array it's given.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+interface NumericKernels {
+	
+	void apply(long[] a, long[] b, long[] r, int size, Arithmetic op);
+	
+	void apply(double[] a, double[] b, double[] r, int size, Arithmetic op);
+	
+	/**
+	 * Computes <code>a * b + c</code>, rounding the product and the sum
+	 * separately, as the expression would.
+	 */
+	void multiplyAdd(long[] a, long[] b, long[] c, long[] r, int size);
+	
+	void multiplyAdd(double[] a, double[] b, double[] c, double[] r, int size);
+	
+	void compare(long[] a, long[] b, boolean[] mask, int size, Comparison op);
+	
+	void compare(double[] a, double[] b, boolean[] mask, int size, Comparison op);
+	
+	long sum(long[] a, int size);
+	
+	/**
+	 * Sums decimal values. The additions may be reordered, so the result
+	 * can differ from a sequential sum in the last bits.
+	 */
+	double sum(double[] a, int size);
+	
+	long dot(long[] a, long[] b, int size);
+	
+	/**
+	 * Computes a decimal dot product. The additions may be reordered, as
+	 * with {@link #sum(double[], int)}.
+	 */
+	double dot(double[] a, double[] b, int size);
+	
+	/**
+	 * Finds the smallest or largest of a non-empty set of values.
+	 */
+	long extreme(long[] a, int size, boolean largest);
+	
+	double extreme(double[] a, int size, boolean largest);
+	
+}
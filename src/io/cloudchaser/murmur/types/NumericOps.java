@@ -0,0 +1,360 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.MurmurError;
+import static io.cloudchaser.murmur.types.MurmurType.ARRAY;
+import static io.cloudchaser.murmur.types.MurmurType.INTEGER;
+
+import io.cloudchaser.murmur.types.PrimitiveStorage.DoubleStorage;
+import io.cloudchaser.murmur.types.PrimitiveStorage.LongStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Element-wise arithmetic, reductions and comparisons over numeric
+ * arrays. The values are unboxed, and handed to the vector kernels when
+ * the runtime includes the vector API, or to the scalar kernels when it
+ * doesn't. Integer operands stay integers, and mix with decimals as
+ * decimals.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class NumericOps {
+	
+	/**
+	 * Element-wise arithmetic operations.
+	 */
+	static enum Arithmetic {
+		ADD, SUBTRACT, MULTIPLY, DIVIDE
+	}
+	
+	/**
+	 * Element-wise comparison operations.
+	 */
+	static enum Comparison {
+		LESS_THAN, GREATER_THAN, EQUAL
+	}
+	
+	/**
+	 * The kernels in use. The vector kernels need the runtime to be started
+	 * with <code>--add-modules jdk.incubator.vector</code>.
+	 */
+	static final NumericKernels KERNELS = loadKernels();
+	
+	/**
+	 * The unboxed values of an array, or of a number repeated to an
+	 * array's length.
+	 */
+	private static final class Operand {
+		
+		/**
+		 * The number of values.
+		 */
+		private final int size;
+		
+		/**
+		 * The integer values, or null if any value is a decimal.
+		 */
+		private final long[] longs;
+		
+		/**
+		 * The decimal values, converted when first required.
+		 */
+		private double[] doubles;
+
+		private Operand(int size, long[] longs, double[] doubles) {
+			this.size = size;
+			this.longs = longs;
+			this.doubles = doubles;
+		}
+		
+		/**
+		 * Gets the values of an array, reading primitive storage in place,
+		 * and copying off-heap storage out in bulk.
+		 * 
+		 * @param elements The array elements.
+		 * @return The operand.
+		 */
+		static Operand of(List<MurmurObject> elements) {
+			int size = elements.size();
+			if(elements instanceof LongStorage) {
+				return new Operand(size, ((LongStorage)elements).values(), null);
+			} else if(elements instanceof DoubleStorage) {
+				return new Operand(size, null, ((DoubleStorage)elements).values());
+			} else if(elements instanceof OffHeapStorage) {
+				OffHeapStorage storage = (OffHeapStorage)elements;
+				return storage.getElementType() == INTEGER ?
+						new Operand(size, storage.copyLongs(), null) :
+						new Operand(size, null, storage.copyDoubles());
+			}
+			
+			// Check if every element is an integer.
+			boolean integers = true;
+			for(MurmurObject element : elements) {
+				if(!element.getType().numeric) {
+					throw new MurmurError(MurmurError.NOT_NUMERIC);
+				}
+				integers &= element.getType() == INTEGER;
+			}
+			
+			// Unbox the elements.
+			if(integers) {
+				long[] longs = new long[size];
+				for(int idx = 0; idx < size; idx++) {
+					longs[idx] = elements.get(idx).asInteger().getValue();
+				}
+				return new Operand(size, longs, null);
+			}
+			double[] doubles = new double[size];
+			for(int idx = 0; idx < size; idx++) {
+				doubles[idx] = elements.get(idx).asDecimal().getValue();
+			}
+			return new Operand(size, null, doubles);
+		}
+		
+		/**
+		 * Gets the values of an array, or repeats a number.
+		 * 
+		 * @param value The array or number.
+		 * @param size The length to repeat a number to.
+		 * @return The operand.
+		 */
+		static Operand of(MurmurObject value, int size) {
+			if(value.getType() == ARRAY) {
+				Operand operand = of(((MurmurArray)value).snapshot());
+				if(operand.size != size) {
+					MurmurError error = new MurmurError(MurmurError.LENGTH_MISMATCH);
+					error.setLineText("\t(Lengths: " + size + " and " + operand.size + ")");
+					throw error;
+				}
+				return operand;
+			}
+			
+			// Repeat the number.
+			if(value.getType() == INTEGER) {
+				long[] longs = new long[size];
+				Arrays.fill(longs, ((MurmurInteger)value).getValue());
+				return new Operand(size, longs, null);
+			} else if(value.getType().numeric) {
+				double[] doubles = new double[size];
+				Arrays.fill(doubles, value.asDecimal().getValue());
+				return new Operand(size, null, doubles);
+			}
+			throw new MurmurError(MurmurError.NOT_NUMERIC);
+		}
+		
+		boolean isIntegral() {
+			return longs != null;
+		}
+		
+		double[] doubles() {
+			if(doubles == null) {
+				doubles = new double[size];
+				for(int idx = 0; idx < size; idx++) {
+					doubles[idx] = longs[idx];
+				}
+			}
+			return doubles;
+		}
+		
+	}
+	
+	private NumericOps() {
+	}
+	
+	/**
+	 * Picks the vector kernels if the vector API module is present. They're
+	 * loaded by name, so that this class still links without the module.
+	 * 
+	 * @return The numeric kernels.
+	 */
+	private static NumericKernels loadKernels() {
+		if(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return (NumericKernels)Class.forName(
+						"io.cloudchaser.murmur.types.VectorKernels")
+						.getDeclaredConstructor().newInstance();
+			} catch(ReflectiveOperationException | LinkageError ex) {
+				// Fall back to the scalar kernels.
+			}
+		}
+		return new ScalarKernels();
+	}
+	
+	/**
+	 * Applies an arithmetic operation to each pair of elements.
+	 * 
+	 * @param elements The left elements.
+	 * @param other The right array, or a number applied to every element.
+	 * @param op The operation.
+	 * @return The results.
+	 */
+	static List<MurmurObject> apply(List<MurmurObject> elements,
+			MurmurObject other, Arithmetic op) {
+		Operand left = Operand.of(elements);
+		Operand right = Operand.of(other, left.size);
+		int size = left.size;
+		
+		// Integer arithmetic.
+		if(left.isIntegral() && right.isIntegral()) {
+			long[] r = new long[size];
+			KERNELS.apply(left.longs, right.longs, r, size, op);
+			return new LongStorage(r);
+		}
+		
+		// Decimal arithmetic.
+		double[] r = new double[size];
+		KERNELS.apply(left.doubles(), right.doubles(), r, size, op);
+		return new DoubleStorage(r);
+	}
+	
+	/**
+	 * Computes <code>a * b + c</code> for each element, in a single pass.
+	 * 
+	 * @param elements The elements, <code>a</code>.
+	 * @param factor The array or number <code>b</code>.
+	 * @param addend The array or number <code>c</code>.
+	 * @return The results.
+	 */
+	static List<MurmurObject> multiplyAdd(List<MurmurObject> elements,
+			MurmurObject factor, MurmurObject addend) {
+		Operand x = Operand.of(elements);
+		Operand y = Operand.of(factor, x.size);
+		Operand z = Operand.of(addend, x.size);
+		int size = x.size;
+		
+		// Integer arithmetic.
+		if(x.isIntegral() && y.isIntegral() && z.isIntegral()) {
+			long[] r = new long[size];
+			KERNELS.multiplyAdd(x.longs, y.longs, z.longs, r, size);
+			return new LongStorage(r);
+		}
+		
+		// Decimal arithmetic.
+		double[] r = new double[size];
+		KERNELS.multiplyAdd(x.doubles(), y.doubles(), z.doubles(), r, size);
+		return new DoubleStorage(r);
+	}
+	
+	/**
+	 * Compares each pair of elements.
+	 * 
+	 * @param elements The left elements.
+	 * @param other The right array, or a number compared to every element.
+	 * @param op The comparison.
+	 * @return An array of boolean results.
+	 */
+	static List<MurmurObject> compare(List<MurmurObject> elements,
+			MurmurObject other, Comparison op) {
+		Operand left = Operand.of(elements);
+		Operand right = Operand.of(other, left.size);
+		int size = left.size;
+		boolean[] mask = new boolean[size];
+		
+		if(left.isIntegral() && right.isIntegral()) {
+			// Integer comparison.
+			KERNELS.compare(left.longs, right.longs, mask, size, op);
+		} else {
+			// Decimal comparison.
+			KERNELS.compare(left.doubles(), right.doubles(), mask, size, op);
+		}
+		
+		// Box the mask.
+		List<MurmurObject> results = new ArrayList<>(size);
+		for(boolean value : mask) {
+			results.add(MurmurBoolean.create(value));
+		}
+		return results;
+	}
+	
+	/**
+	 * Sums the elements.
+	 * 
+	 * @param elements The elements.
+	 * @return The sum.
+	 */
+	static MurmurObject sum(List<MurmurObject> elements) {
+		Operand values = Operand.of(elements);
+		int size = values.size;
+		
+		// Integer sum.
+		if(values.isIntegral()) {
+			return MurmurInteger.create(KERNELS.sum(values.longs, size));
+		}
+		
+		// Decimal sum.
+		return MurmurDecimal.create(KERNELS.sum(values.doubles, size));
+	}
+	
+	/**
+	 * Computes the dot product with another array.
+	 * 
+	 * @param elements The elements.
+	 * @param other The other array.
+	 * @return The dot product.
+	 */
+	static MurmurObject dot(List<MurmurObject> elements, MurmurObject other) {
+		if(other.getType() != ARRAY) {
+			throw new MurmurError(MurmurError.NOT_NUMERIC);
+		}
+		Operand left = Operand.of(elements);
+		Operand right = Operand.of(other, left.size);
+		int size = left.size;
+		
+		// Integer product.
+		if(left.isIntegral() && right.isIntegral()) {
+			return MurmurInteger.create(KERNELS.dot(left.longs, right.longs, size));
+		}
+		
+		// Decimal product.
+		return MurmurDecimal.create(KERNELS.dot(left.doubles(), right.doubles(), size));
+	}
+	
+	/**
+	 * Finds the smallest or largest element.
+	 * 
+	 * @param elements The elements.
+	 * @param largest Whether to find the largest element.
+	 * @return The element, or null if there are none.
+	 */
+	static MurmurObject extreme(List<MurmurObject> elements, boolean largest) {
+		Operand values = Operand.of(elements);
+		int size = values.size;
+		if(size == 0) return MurmurNull.NULL;
+		
+		// Integer extreme.
+		if(values.isIntegral()) {
+			return MurmurInteger.create(KERNELS.extreme(values.longs, size, largest));
+		}
+		
+		// Decimal extreme.
+		return MurmurDecimal.create(KERNELS.extreme(values.doubles, size, largest));
+	}
+	
+}
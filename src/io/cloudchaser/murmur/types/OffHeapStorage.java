@@ -0,0 +1,346 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.MurmurError;
+import static io.cloudchaser.murmur.types.MurmurType.DECIMAL;
+import static io.cloudchaser.murmur.types.MurmurType.INTEGER;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numeric element storage held outside of the Java heap, in a direct
+ * buffer. The garbage collector never scans the elements, so large
+ * arrays don't add to collection pauses.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public final class OffHeapStorage extends PrimitiveStorage {
+	
+	/**
+	 * The size of a single element, in bytes.
+	 */
+	private static final int ELEMENT_SIZE = 8;
+	
+	/**
+	 * The access count once the buffer has been released.
+	 */
+	private static final int RELEASED = Integer.MIN_VALUE;
+	
+	/**
+	 * Frees a direct buffer's memory immediately, or null if the JDK
+	 * doesn't allow it.
+	 */
+	private static final MethodHandle CLEANER = findCleaner();
+	
+	/**
+	 * The type of the elements. Either integer or decimal.
+	 */
+	private final MurmurType type;
+	
+	/**
+	 * The number of accesses to the buffer in progress, or
+	 * {@link #RELEASED} once it's been released.
+	 */
+	private final AtomicInteger accesses = new AtomicInteger();
+	
+	/**
+	 * The element buffer, or null once released.
+	 */
+	private ByteBuffer buffer;
+
+	public OffHeapStorage(MurmurType type, int capacity) {
+		if(type != INTEGER && type != DECIMAL) {
+			throw new IllegalArgumentException("Unsupported element type: " + type);
+		}
+		this.type = type;
+		this.buffer = allocate(Math.max(capacity, 8));
+	}
+	
+	/**
+	 * Creates storage that has already been released, for an array giving
+	 * up storage that other arrays still read.
+	 * 
+	 * @param type The element type.
+	 * @return The released storage.
+	 */
+	static OffHeapStorage released(MurmurType type) {
+		OffHeapStorage storage = new OffHeapStorage(type, 0);
+		storage.release();
+		return storage;
+	}
+	
+	/**
+	 * Copies a list of numeric elements off-heap.
+	 * 
+	 * @param elements The elements to copy.
+	 * @return The off-heap storage.
+	 */
+	public static OffHeapStorage copyOf(List<MurmurObject> elements) {
+		// Empty lists default to integer storage.
+		MurmurType type = elements.isEmpty() ?
+				INTEGER : elements.get(0).getType();
+		if(type != INTEGER && type != DECIMAL) {
+			throw notNumeric();
+		}
+		
+		// Check that every element shares the type.
+		OffHeapStorage storage = new OffHeapStorage(type, elements.size());
+		if(!elements.stream().allMatch(storage::accepts)) {
+			storage.release();
+			throw notNumeric();
+		}
+		
+		// Populate the storage.
+		storage.addAll(elements);
+		return storage;
+	}
+	
+	private static MurmurError notNumeric() {
+		MurmurError error = new MurmurError(MurmurError.NOT_NUMERIC);
+		error.setLineText("\t(Off-heap arrays hold only integers, or only decimals)");
+		return error;
+	}
+	
+	private static ByteBuffer allocate(int capacity) {
+		return ByteBuffer.allocateDirect(Math.multiplyExact(capacity, ELEMENT_SIZE))
+				.order(ByteOrder.nativeOrder());
+	}
+	
+	/**
+	 * Finds the JDK's hook for freeing a direct buffer. It's looked up
+	 * reflectively, since it isn't part of the supported API.
+	 * 
+	 * @return The cleaner, or null if it isn't available.
+	 */
+	private static MethodHandle findCleaner() {
+		try {
+			Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+			Field instance = unsafe.getDeclaredField("theUnsafe");
+			instance.setAccessible(true);
+			return MethodHandles.lookup().findVirtual(unsafe, "invokeCleaner",
+					MethodType.methodType(void.class, ByteBuffer.class))
+					.bindTo(instance.get(null));
+		} catch(ReflectiveOperationException | RuntimeException ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Starts an access to the buffer. Each access must be ended with
+	 * {@link #end()}, so that the buffer isn't freed while it's in use.
+	 * 
+	 * @return The buffer.
+	 */
+	private ByteBuffer begin() {
+		int count;
+		do {
+			count = accesses.get();
+			if(count == RELEASED) {
+				throw new MurmurError(MurmurError.RELEASED);
+			}
+		} while(!accesses.compareAndSet(count, count + 1));
+		return buffer;
+	}
+	
+	private void end() {
+		accesses.decrementAndGet();
+	}
+	
+	public MurmurType getElementType() {
+		return type;
+	}
+	
+	public long getLong(int index) {
+		checkIndex(index);
+		ByteBuffer values = begin();
+		try {
+			return type == INTEGER ? values.getLong(index * ELEMENT_SIZE) :
+					(long)values.getDouble(index * ELEMENT_SIZE);
+		} finally {
+			end();
+		}
+	}
+	
+	public double getDouble(int index) {
+		checkIndex(index);
+		ByteBuffer values = begin();
+		try {
+			return type == DECIMAL ? values.getDouble(index * ELEMENT_SIZE) :
+					values.getLong(index * ELEMENT_SIZE);
+		} finally {
+			end();
+		}
+	}
+	
+	/**
+	 * Copies integer elements out of the buffer, in a single bulk read.
+	 *
+	 * @return The element values.
+	 */
+	long[] copyLongs() {
+		ByteBuffer values = begin();
+		try {
+			long[] copy = new long[size];
+			values.asLongBuffer().get(0, copy);
+			return copy;
+		} finally {
+			end();
+		}
+	}
+
+	/**
+	 * Copies decimal elements out of the buffer, in a single bulk read.
+	 *
+	 * @return The element values.
+	 */
+	double[] copyDoubles() {
+		ByteBuffer values = begin();
+		try {
+			double[] copy = new double[size];
+			values.asDoubleBuffer().get(0, copy);
+			return copy;
+		} finally {
+			end();
+		}
+	}
+
+	/**
+	 * Releases the buffer, and frees its memory immediately. Accesses
+	 * already in progress on other threads are waited for, and any later
+	 * access fails with a Murmur error. If the JDK doesn't allow freeing
+	 * the memory directly, it's returned once the buffer is collected.
+	 */
+	public void release() {
+		// Wait for accesses in progress, and refuse any new ones.
+		int count;
+		while((count = accesses.get()) != RELEASED) {
+			if(count == 0 && accesses.compareAndSet(0, RELEASED)) {
+				free(buffer);
+				buffer = null;
+				size = 0;
+				modCount++;
+				return;
+			}
+			Thread.onSpinWait();
+		}
+	}
+	
+	private static void free(ByteBuffer buffer) {
+		if(CLEANER == null) return;
+		try {
+			CLEANER.invokeExact(buffer);
+		} catch(Error err) {
+			throw err;
+		} catch(Throwable ex) {
+			// Leave the memory to the buffer's own cleaner.
+		}
+	}
+	
+	public boolean isReleased() {
+		return accesses.get() == RELEASED;
+	}
+	
+	private void checkReleased() {
+		if(isReleased()) {
+			throw new MurmurError(MurmurError.RELEASED);
+		}
+	}
+
+	@Override
+	protected void checkIndex(int index) {
+		checkReleased();
+		super.checkIndex(index);
+	}
+
+	@Override
+	public int size() {
+		checkReleased();
+		return size;
+	}
+
+	@Override
+	public boolean accepts(MurmurObject value) {
+		return value.getType() == type;
+	}
+
+	@Override
+	public MurmurObject get(int index) {
+		checkIndex(index);
+		ByteBuffer values = begin();
+		try {
+			return type == INTEGER ?
+					MurmurInteger.create(values.getLong(index * ELEMENT_SIZE)) :
+					MurmurDecimal.create(values.getDouble(index * ELEMENT_SIZE));
+		} finally {
+			end();
+		}
+	}
+
+	@Override
+	protected void store(int index, MurmurObject value) {
+		ByteBuffer values = begin();
+		try {
+			if(type == INTEGER) {
+				values.putLong(index * ELEMENT_SIZE, ((MurmurInteger)value).getValue());
+			} else {
+				values.putDouble(index * ELEMENT_SIZE, ((MurmurDecimal)value).getValue());
+			}
+		} finally {
+			end();
+		}
+	}
+
+	@Override
+	protected void move(int from, int to, int length) {
+		ByteBuffer values = begin();
+		try {
+			// Grow the buffer, if required. The old buffer may still be
+			// in use on another thread, so it's left to its cleaner.
+			int capacity = values.capacity() / ELEMENT_SIZE;
+			if(to + length > capacity) {
+				ByteBuffer grown = allocate(Math.max(to + length,
+						capacity + (capacity >> 1)));
+				grown.put(0, values, 0, size * ELEMENT_SIZE);
+				buffer = values = grown;
+			}
+			
+			// Move the elements. Overlapping ranges are handled by the buffer.
+			values.put(to * ELEMENT_SIZE, values,
+					from * ELEMENT_SIZE, length * ELEMENT_SIZE);
+		} finally {
+			end();
+		}
+	}
+	
+}
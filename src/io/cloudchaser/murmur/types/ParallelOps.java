@@ -0,0 +1,269 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.types.PrimitiveStorage.CharStorage;
+import io.cloudchaser.murmur.types.PrimitiveStorage.DoubleStorage;
+import io.cloudchaser.murmur.types.PrimitiveStorage.LongStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Array operations split across cores with fork/join. Each task invokes
+ * functions through its own forked delegate, so tasks never share a
+ * context stack or interpreter caches. Functions that write to captured
+ * state, and small arrays, are handled sequentially instead.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class ParallelOps {
+	
+	/**
+	 * Arrays smaller than this are always handled sequentially.
+	 */
+	static final int PARALLEL_THRESHOLD = 1024;
+	
+	/**
+	 * The smallest range handled by a single task.
+	 */
+	static final int MIN_TASK_SIZE = 256;
+	
+	private ParallelOps() {
+	}
+	
+	/**
+	 * Gets the size of the ranges handled by a single task.
+	 * 
+	 * @param size The number of elements.
+	 * @return The task range size.
+	 */
+	private static int getTaskSize(int size) {
+		int tasks = ForkJoinPool.getCommonPoolParallelism() * 4;
+		return Math.max(MIN_TASK_SIZE, size / tasks);
+	}
+	
+	/**
+	 * Checks if a function can be applied to elements in parallel.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param function The function.
+	 * @param elements The elements.
+	 * @return <code>true</code> to run in parallel.
+	 */
+	private static boolean isParallel(InvocationDelegate delegate,
+			MurmurObject function, List<MurmurObject> elements) {
+		return elements.size() >= PARALLEL_THRESHOLD &&
+				ForkJoinPool.getCommonPoolParallelism() > 1 &&
+				delegate.canFork() && delegate.isConcurrent(function);
+	}
+	
+	/**
+	 * Applies a function to each element.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param elements The elements, which must not change during the call.
+	 * @param function The function, taking one argument.
+	 * @return The results, in element order.
+	 */
+	static List<MurmurObject> map(InvocationDelegate delegate,
+			List<MurmurObject> elements, MurmurObject function) {
+		MurmurObject[] results = new MurmurObject[elements.size()];
+		
+		// Check for a sequential map.
+		if(!isParallel(delegate, function, elements)) {
+			PreparedCall call = new PreparedCall(delegate, function, 1);
+			for(int idx = 0; idx < results.length; idx++) {
+				results[idx] = call.invoke(elements.get(idx));
+			}
+			return new ArrayList<>(Arrays.asList(results));
+		}
+		
+		int taskSize = getTaskSize(results.length);
+		PreparedCall.check(function, 1);
+		
+		// Map ranges of the elements in parallel.
+		class MapTask extends RecursiveAction {
+			
+			private static final long serialVersionUID = 1L;
+			
+			private final int from;
+			private final int to;
+			
+			MapTask(int from, int to) {
+				this.from = from;
+				this.to = to;
+			}
+
+			@Override
+			protected void compute() {
+				if(to - from > taskSize) {
+					int middle = (from + to) >>> 1;
+					invokeAll(new MapTask(from, middle), new MapTask(middle, to));
+					return;
+				}
+				
+				// Map the range, with a delegate of its own.
+				PreparedCall call = new PreparedCall(delegate.fork(), function, 1);
+				for(int idx = from; idx < to; idx++) {
+					results[idx] = call.invoke(elements.get(idx));
+				}
+			}
+			
+		}
+		
+		ForkJoinPool.commonPool().invoke(new MapTask(0, results.length));
+		return new ArrayList<>(Arrays.asList(results));
+	}
+	
+	/**
+	 * Combines the elements with a function. In parallel, ranges are
+	 * reduced separately from the initial value and then combined, so the
+	 * function must be associative and the initial value its identity.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param elements The elements, which must not change during the call.
+	 * @param function The function, taking two arguments.
+	 * @param initial The initial value.
+	 * @return The combined value.
+	 */
+	static MurmurObject reduce(InvocationDelegate delegate,
+			List<MurmurObject> elements, MurmurObject function,
+			MurmurObject initial) {
+		// Check for a sequential reduction.
+		if(!isParallel(delegate, function, elements)) {
+			PreparedCall call = new PreparedCall(delegate, function, 2);
+			MurmurObject result = initial;
+			for(MurmurObject element : elements) {
+				result = call.invoke(result, element);
+			}
+			return result;
+		}
+		
+		int taskSize = getTaskSize(elements.size());
+		PreparedCall.check(function, 2);
+		
+		// Reduce ranges of the elements in parallel.
+		class ReduceTask extends RecursiveTask<MurmurObject> {
+			
+			private static final long serialVersionUID = 1L;
+			
+			private final int from;
+			private final int to;
+			
+			ReduceTask(int from, int to) {
+				this.from = from;
+				this.to = to;
+			}
+
+			@Override
+			protected MurmurObject compute() {
+				if(to - from > taskSize) {
+					int middle = (from + to) >>> 1;
+					ReduceTask right = new ReduceTask(middle, to);
+					right.fork();
+					MurmurObject left = new ReduceTask(from, middle).compute();
+					
+					// Combine the halves.
+					return new PreparedCall(delegate.fork(), function, 2)
+							.invoke(left, right.join());
+				}
+				
+				// Reduce the range, with a delegate of its own.
+				PreparedCall call = new PreparedCall(delegate.fork(), function, 2);
+				MurmurObject result = initial;
+				for(int idx = from; idx < to; idx++) {
+					result = call.invoke(result, elements.get(idx));
+				}
+				return result;
+			}
+			
+		}
+		
+		return ForkJoinPool.commonPool().invoke(new ReduceTask(0, elements.size()));
+	}
+	
+	/**
+	 * Sorts the elements by a comparison function, which returns a
+	 * negative, zero or positive integer. Each worker thread compares
+	 * through a delegate of its own.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param elements The elements, which must not change during the call.
+	 * @param function The comparison function, taking two arguments.
+	 * @return The sorted elements.
+	 */
+	static List<MurmurObject> sort(InvocationDelegate delegate,
+			List<MurmurObject> elements, MurmurObject function) {
+		// Check for a sequential sort.
+		if(!isParallel(delegate, function, elements)) {
+			return SortOps.sort(delegate, elements, function);
+		}
+		
+		// Sort in parallel, comparing through per-thread calls.
+		PreparedCall.check(function, 2);
+		ThreadLocal<PreparedCall> calls = ThreadLocal.withInitial(() ->
+				new PreparedCall(delegate.fork(), function, 2));
+		MurmurObject[] values = elements.toArray(new MurmurObject[elements.size()]);
+		Arrays.parallelSort(values, (left, right) ->
+				SortOps.compare(calls.get(), left, right));
+		return new ArrayList<>(Arrays.asList(values));
+	}
+	
+	/**
+	 * Sorts the elements in their natural order. Primitive storage is
+	 * sorted without boxing.
+	 * 
+	 * @param elements The elements, which must not change during the call.
+	 * @return The sorted elements.
+	 */
+	static List<MurmurObject> sort(List<MurmurObject> elements) {
+		// Sort primitive storage unboxed.
+		if(elements instanceof LongStorage) {
+			long[] values = Arrays.copyOf(((LongStorage)elements).values(), elements.size());
+			Arrays.parallelSort(values);
+			return new LongStorage(values);
+		} else if(elements instanceof DoubleStorage) {
+			double[] values = Arrays.copyOf(((DoubleStorage)elements).values(), elements.size());
+			Arrays.parallelSort(values);
+			return new DoubleStorage(values);
+		} else if(elements instanceof CharStorage) {
+			char[] values = Arrays.copyOf(((CharStorage)elements).values(), elements.size());
+			Arrays.parallelSort(values);
+			return new CharStorage(values);
+		}
+		
+		// Sort any other elements boxed.
+		MurmurObject[] values = elements.toArray(new MurmurObject[elements.size()]);
+		Arrays.parallelSort(values, SortOps.NATURAL_ORDER);
+		return new ArrayList<>(Arrays.asList(values));
+	}
+	
+}
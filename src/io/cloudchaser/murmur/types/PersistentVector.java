@@ -0,0 +1,259 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list, stored as a 32-way trie with a tail. Appending and
+ * updating create a new vector which shares structure with the original,
+ * copying at most one node per level.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public final class PersistentVector extends AbstractList<MurmurObject>
+		implements RandomAccess, SharedStorage {
+	
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	
+	/**
+	 * The empty vector.
+	 */
+	public static final PersistentVector EMPTY = new PersistentVector(
+			0, BITS, new Object[WIDTH], new Object[0]);
+	
+	/**
+	 * The number of elements.
+	 */
+	private final int size;
+	
+	/**
+	 * The bit shift of the root node's level.
+	 */
+	private final int shift;
+	
+	/**
+	 * The root node of the trie.
+	 */
+	private final Object[] root;
+	
+	/**
+	 * The last elements, not yet pushed into the trie.
+	 */
+	private final Object[] tail;
+
+	private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+	
+	/**
+	 * Creates a vector holding the elements of a list.
+	 * 
+	 * @param elements The elements.
+	 * @return The vector.
+	 */
+	public static PersistentVector of(List<MurmurObject> elements) {
+		if(elements instanceof PersistentVector) {
+			return (PersistentVector)elements;
+		}
+		
+		// Fill the tail a node at a time.
+		PersistentVector vector = EMPTY;
+		int count = elements.size();
+		for(int idx = 0; idx < count; idx += WIDTH) {
+			vector = vector.withTail(elements.subList(idx,
+					Math.min(count, idx + WIDTH)).toArray());
+		}
+		return vector;
+	}
+	
+	/**
+	 * Gets the index of the first element stored in the tail.
+	 * 
+	 * @return The tail offset.
+	 */
+	private int tailOffset() {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+	
+	/**
+	 * Gets the leaf node holding an element.
+	 * 
+	 * @param index The element index.
+	 * @return The leaf node.
+	 */
+	private Object[] leafFor(int index) {
+		if(index >= tailOffset()) return tail;
+		
+		// Walk down the trie.
+		Object[] node = root;
+		for(int level = shift; level > 0; level -= BITS) {
+			node = (Object[])node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+	
+	@Override
+	public MurmurObject get(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		return (MurmurObject)leafFor(index)[index & MASK];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Creates a vector with an element appended.
+	 * 
+	 * @param value The element to append.
+	 * @return The new vector.
+	 */
+	public PersistentVector append(MurmurObject value) {
+		// Room left in the tail.
+		if(size - tailOffset() < WIDTH) {
+			Object[] next = Arrays.copyOf(tail, tail.length + 1);
+			next[tail.length] = value;
+			return new PersistentVector(size + 1, shift, root, next);
+		}
+		
+		// Push the full tail into the trie.
+		return withTail(new Object[] { value });
+	}
+	
+	/**
+	 * Creates a vector with every element of a collection appended.
+	 * 
+	 * @param values The elements to append.
+	 * @return The new vector.
+	 */
+	public PersistentVector appendAll(Collection<MurmurObject> values) {
+		PersistentVector vector = this;
+		for(MurmurObject value : values) {
+			vector = vector.append(value);
+		}
+		return vector;
+	}
+	
+	/**
+	 * Creates a vector with one element replaced.
+	 * 
+	 * @param index The element index.
+	 * @param value The new element.
+	 * @return The new vector.
+	 */
+	public PersistentVector update(int index, MurmurObject value) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		// Replace within the tail.
+		if(index >= tailOffset()) {
+			Object[] next = tail.clone();
+			next[index & MASK] = value;
+			return new PersistentVector(size, shift, root, next);
+		}
+		
+		// Replace within the trie.
+		return new PersistentVector(size, shift,
+				update(shift, root, index, value), tail);
+	}
+	
+	private static Object[] update(int level, Object[] node,
+			int index, MurmurObject value) {
+		Object[] copy = node.clone();
+		if(level == 0) {
+			copy[index & MASK] = value;
+		} else {
+			int child = (index >>> level) & MASK;
+			copy[child] = update(level - BITS, (Object[])node[child], index, value);
+		}
+		return copy;
+	}
+	
+	/**
+	 * Pushes the current tail into the trie, and starts a new tail. The
+	 * current tail must be full, unless this vector is empty.
+	 * 
+	 * @param next The new tail.
+	 * @return The new vector.
+	 */
+	private PersistentVector withTail(Object[] next) {
+		if(size == 0) {
+			return new PersistentVector(next.length, shift, root, next);
+		}
+		
+		// Check for root overflow.
+		int level = shift;
+		Object[] top;
+		if((size >>> BITS) > (1 << shift)) {
+			top = new Object[WIDTH];
+			top[0] = root;
+			top[1] = newPath(shift, tail);
+			level += BITS;
+		} else {
+			top = pushTail(shift, root, tail);
+		}
+		
+		return new PersistentVector(size + next.length, level, top, next);
+	}
+	
+	private Object[] pushTail(int level, Object[] parent, Object[] leaf) {
+		int child = ((size - 1) >>> level) & MASK;
+		Object[] copy = parent.clone();
+		
+		// Insert the leaf, creating nodes as needed.
+		if(level == BITS) {
+			copy[child] = leaf;
+		} else {
+			Object[] node = (Object[])parent[child];
+			copy[child] = node != null ?
+					pushTail(level - BITS, node, leaf) :
+					newPath(level - BITS, leaf);
+		}
+		return copy;
+	}
+	
+	private static Object[] newPath(int level, Object[] leaf) {
+		if(level == 0) return leaf;
+		Object[] node = new Object[WIDTH];
+		node[0] = newPath(level - BITS, leaf);
+		return node;
+	}
+	
+}
@@ -0,0 +1,181 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The elements of a chain of map and filter operations over an array.
+ * Chained operations compose into a single stage, so the chain runs in
+ * one pass over the source, with no intermediate arrays. The elements are
+ * computed once, when first read; the array members collect them as soon
+ * as a chain ends.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class PipelineStorage extends AbstractList<MurmurObject>
+		implements RandomAccess, SharedStorage {
+	
+	/**
+	 * A fused sequence of map and filter operations.
+	 */
+	@FunctionalInterface
+	static interface Stage {
+		
+		/**
+		 * Applies the operations to a source element.
+		 * 
+		 * @param value The source element.
+		 * @return The resulting element, or null if it was filtered out.
+		 */
+		MurmurObject apply(MurmurObject value);
+		
+	}
+	
+	/**
+	 * A consumer of pipeline elements.
+	 */
+	@FunctionalInterface
+	static interface Sink {
+		
+		/**
+		 * Accepts an element.
+		 * 
+		 * @param value The element.
+		 * @return <code>false</code> to stop the pipeline.
+		 */
+		boolean accept(MurmurObject value);
+		
+	}
+	
+	/**
+	 * The source elements.
+	 */
+	private final List<MurmurObject> source;
+	
+	/**
+	 * The operations applied to the source, or null if there are none.
+	 */
+	private final Stage stage;
+	
+	/**
+	 * The computed elements, or null if not yet computed.
+	 */
+	private volatile List<MurmurObject> result;
+	
+	/**
+	 * Creates a pipeline with no operations.
+	 * 
+	 * @param source The source elements.
+	 */
+	PipelineStorage(List<MurmurObject> source) {
+		this(source, null);
+	}
+
+	private PipelineStorage(List<MurmurObject> source, Stage stage) {
+		this.source = source;
+		this.stage = stage;
+	}
+	
+	/**
+	 * Creates a pipeline with an operation added after this one's.
+	 * 
+	 * @param next The operation to add.
+	 * @return The new pipeline.
+	 */
+	PipelineStorage then(Stage next) {
+		// Start from the computed elements, if available.
+		List<MurmurObject> values = result;
+		if(values != null || stage == null) {
+			return new PipelineStorage(values != null ? values : source, next);
+		}
+		
+		// Fuse the operation with the existing ones.
+		Stage first = stage;
+		return new PipelineStorage(source, (value) -> {
+			MurmurObject mapped = first.apply(value);
+			return mapped == null ? null : next.apply(mapped);
+		});
+	}
+	
+	/**
+	 * Passes each element to a sink, in a single pass over the source.
+	 * 
+	 * @param sink The element consumer.
+	 */
+	void run(Sink sink) {
+		// Read the computed elements, if available.
+		List<MurmurObject> values = result;
+		if(values != null || stage == null) {
+			for(MurmurObject element : values != null ? values : source) {
+				if(!sink.accept(element)) return;
+			}
+			return;
+		}
+		
+		// Run the operations over the source.
+		for(MurmurObject element : source) {
+			MurmurObject value = stage.apply(element);
+			if(value != null && !sink.accept(value)) return;
+		}
+	}
+	
+	/**
+	 * Gets the computed elements, computing them if required. The source
+	 * and operations are kept, so that readers still running them on
+	 * other threads aren't affected.
+	 * 
+	 * @return The computed elements.
+	 */
+	List<MurmurObject> collect() {
+		List<MurmurObject> values = result;
+		if(values == null) {
+			synchronized(this) {
+				values = result;
+				if(values == null) {
+					List<MurmurObject> computed = new ArrayList<>();
+					run(computed::add);
+					result = values = PrimitiveStorage.specialize(computed);
+				}
+			}
+		}
+		return values;
+	}
+
+	@Override
+	public MurmurObject get(int index) {
+		return collect().get(index);
+	}
+
+	@Override
+	public int size() {
+		return collect().size();
+	}
+	
+}
@@ -0,0 +1,129 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import java.util.Arrays;
+
+/**
+ * A callable value checked once for repeated invocation from native
+ * code. Murmur functions skip argument validation and list creation, and
+ * native methods are called directly.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public final class PreparedCall {
+	
+	/**
+	 * The delegate handling invocations.
+	 */
+	private final InvocationDelegate delegate;
+	
+	/**
+	 * The value being called.
+	 */
+	private final MurmurObject callee;
+	
+	/**
+	 * The callee as a Murmur function, if it is one.
+	 */
+	private final MurmurFunction function;
+	
+	/**
+	 * Creates a prepared call, checking that a value can be invoked with
+	 * the given number of arguments.
+	 * 
+	 * @param delegate The delegate handling invocations.
+	 * @param callee The value being called.
+	 * @param arity The number of arguments it will be passed.
+	 */
+	public PreparedCall(InvocationDelegate delegate,
+			MurmurObject callee, int arity) {
+		check(callee, arity);
+		this.delegate = delegate;
+		this.callee = callee;
+		this.function = callee instanceof MurmurFunction ?
+				(MurmurFunction)callee : null;
+	}
+	
+	/**
+	 * Checks that a value can be invoked with the given number of
+	 * arguments.
+	 * 
+	 * @param callee The value being called.
+	 * @param arity The number of arguments it will be passed.
+	 */
+	public static void check(MurmurObject callee, int arity) {
+		if(callee instanceof MurmurFunction) {
+			if(((MurmurFunction)callee).getParameterCount() != arity) {
+				throw new UnsupportedOperationException();
+			}
+		} else if(callee instanceof NativeMethod) {
+			if(!((NativeMethod)callee).accepts(arity)) {
+				throw new UnsupportedOperationException();
+			}
+		} else if(!(callee instanceof InvokableType ||
+				callee instanceof JavaInvokableType)) {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	/**
+	 * Invokes the callee.
+	 * 
+	 * @param arguments The invocation arguments.
+	 * @return The result of the invocation.
+	 */
+	public MurmurObject invoke(MurmurObject... arguments) {
+		// Fast path for Murmur functions.
+		if(function != null) {
+			return delegate.invokeFunction(
+					function.createPreparedLocal(arguments), function);
+		}
+		
+		// Other invokable types.
+		if(callee instanceof JavaInvokableType) {
+			return ((JavaInvokableType)callee).opInvoke(Arrays.asList(arguments));
+		}
+		return ((InvokableType)callee).opInvoke(delegate, Arrays.asList(arguments));
+	}
+	
+	/**
+	 * Invokes the callee as a predicate.
+	 * 
+	 * @param arguments The invocation arguments.
+	 * @return The boolean result of the invocation.
+	 */
+	public boolean test(MurmurObject... arguments) {
+		MurmurObject result = invoke(arguments);
+		
+		// Check that the result is boolean.
+		if(!(result instanceof MurmurBoolean)) {
+			throw new UnsupportedOperationException();
+		}
+		return ((MurmurBoolean)result).getValue();
+	}
+	
+}
@@ -0,0 +1,398 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import static io.cloudchaser.murmur.types.MurmurType.CHARACTER;
+import static io.cloudchaser.murmur.types.MurmurType.DECIMAL;
+import static io.cloudchaser.murmur.types.MurmurType.INTEGER;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unboxed element storage for arrays whose elements all share one
+ * primitive type. Elements are boxed on read, and writes of any other
+ * type are rejected; the owning array generalizes to object storage
+ * before making such a write.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+public abstract class PrimitiveStorage extends AbstractList<MurmurObject>
+		implements RandomAccess {
+	
+	/**
+	 * Storage for integer elements.
+	 */
+	public static final class LongStorage extends PrimitiveStorage {
+		
+		private long[] values;
+		
+		public LongStorage(int capacity) {
+			values = new long[Math.max(capacity, 8)];
+		}
+		
+		/**
+		 * Creates storage holding the given values, without copying them.
+		 * 
+		 * @param values The element values.
+		 */
+		LongStorage(long[] values) {
+			this.values = values;
+			this.size = values.length;
+		}
+		
+		public long getLong(int index) {
+			checkIndex(index);
+			return values[index];
+		}
+		
+		/**
+		 * Gets the backing array. Only the first {@link #size()} values
+		 * are elements.
+		 * 
+		 * @return The backing array.
+		 */
+		long[] values() {
+			return values;
+		}
+
+		@Override
+		public boolean accepts(MurmurObject value) {
+			return value.getType() == INTEGER;
+		}
+
+		@Override
+		public MurmurObject get(int index) {
+			return MurmurInteger.create(getLong(index));
+		}
+
+		@Override
+		protected void store(int index, MurmurObject value) {
+			values[index] = ((MurmurInteger)value).getValue();
+		}
+
+		@Override
+		protected void move(int from, int to, int length) {
+			if(to + length > values.length) {
+				values = Arrays.copyOf(values, Math.max(to + length,
+						values.length + (values.length >> 1)));
+			}
+			System.arraycopy(values, from, values, to, length);
+		}
+		
+	}
+	
+	/**
+	 * Storage for decimal elements.
+	 */
+	public static final class DoubleStorage extends PrimitiveStorage {
+		
+		private double[] values;
+		
+		public DoubleStorage(int capacity) {
+			values = new double[Math.max(capacity, 8)];
+		}
+		
+		/**
+		 * Creates storage holding the given values, without copying them.
+		 * 
+		 * @param values The element values.
+		 */
+		DoubleStorage(double[] values) {
+			this.values = values;
+			this.size = values.length;
+		}
+		
+		public double getDouble(int index) {
+			checkIndex(index);
+			return values[index];
+		}
+		
+		/**
+		 * Gets the backing array. Only the first {@link #size()} values
+		 * are elements.
+		 * 
+		 * @return The backing array.
+		 */
+		double[] values() {
+			return values;
+		}
+
+		@Override
+		public boolean accepts(MurmurObject value) {
+			return value.getType() == DECIMAL;
+		}
+
+		@Override
+		public MurmurObject get(int index) {
+			return MurmurDecimal.create(getDouble(index));
+		}
+
+		@Override
+		protected void store(int index, MurmurObject value) {
+			values[index] = ((MurmurDecimal)value).getValue();
+		}
+
+		@Override
+		protected void move(int from, int to, int length) {
+			if(to + length > values.length) {
+				values = Arrays.copyOf(values, Math.max(to + length,
+						values.length + (values.length >> 1)));
+			}
+			System.arraycopy(values, from, values, to, length);
+		}
+		
+	}
+	
+	/**
+	 * Storage for character elements.
+	 */
+	public static final class CharStorage extends PrimitiveStorage {
+		
+		private char[] values;
+		
+		public CharStorage(int capacity) {
+			values = new char[Math.max(capacity, 8)];
+		}
+		
+		/**
+		 * Creates storage holding the given values, without copying them.
+		 * 
+		 * @param values The element values.
+		 */
+		CharStorage(char[] values) {
+			this.values = values;
+			this.size = values.length;
+		}
+		
+		public char getChar(int index) {
+			checkIndex(index);
+			return values[index];
+		}
+		
+		/**
+		 * Gets the backing array. Only the first {@link #size()} values
+		 * are elements.
+		 * 
+		 * @return The backing array.
+		 */
+		char[] values() {
+			return values;
+		}
+
+		@Override
+		public boolean accepts(MurmurObject value) {
+			return value.getType() == CHARACTER;
+		}
+
+		@Override
+		public MurmurObject get(int index) {
+			return new MurmurCharacter(getChar(index));
+		}
+
+		@Override
+		protected void store(int index, MurmurObject value) {
+			values[index] = (char)((MurmurCharacter)value).getValue();
+		}
+
+		@Override
+		protected void move(int from, int to, int length) {
+			if(to + length > values.length) {
+				values = Arrays.copyOf(values, Math.max(to + length,
+						values.length + (values.length >> 1)));
+			}
+			System.arraycopy(values, from, values, to, length);
+		}
+		
+	}
+	
+	/**
+	 * The number of elements in this storage.
+	 */
+	protected int size;
+	
+	/**
+	 * Creates empty storage for elements of the given type.
+	 * 
+	 * @param type The element type.
+	 * @param capacity The initial capacity.
+	 * @return The storage, or null if the type has no primitive storage.
+	 */
+	public static PrimitiveStorage create(MurmurType type, int capacity) {
+		switch(type) {
+			case INTEGER:
+				return new LongStorage(capacity);
+			case DECIMAL:
+				return new DoubleStorage(capacity);
+			case CHARACTER:
+				return new CharStorage(capacity);
+			default:
+				return null;
+		}
+	}
+	
+	/**
+	 * Copies a list of elements into primitive storage if every element
+	 * shares one primitive type, or into a plain list otherwise.
+	 * 
+	 * @param elements The elements to copy.
+	 * @return The mutable element list.
+	 */
+	public static List<MurmurObject> copyOf(List<MurmurObject> elements) {
+		List<MurmurObject> storage = specialize(elements);
+		return storage != elements ? storage : new ArrayList<>(elements);
+	}
+	
+	/**
+	 * Moves a list of elements into primitive storage if every element
+	 * shares one primitive type.
+	 * 
+	 * @param elements The elements to specialize.
+	 * @return The primitive storage, or the list itself if the elements
+	 *         are not homogeneous, or the list is shared.
+	 */
+	public static List<MurmurObject> specialize(List<MurmurObject> elements) {
+		// Shared storage may be lazy, so it's checked before its size.
+		if(elements instanceof PrimitiveStorage ||
+				elements instanceof SharedStorage) {
+			return elements;
+		}
+		
+		// Empty lists pick a type on their first write.
+		if(elements.isEmpty()) {
+			return elements;
+		}
+		
+		// Check that the storage supports every element.
+		PrimitiveStorage storage = create(elements.get(0).getType(), elements.size());
+		if(storage == null || !elements.stream().allMatch(storage::accepts)) {
+			return elements;
+		}
+		
+		// Populate the storage.
+		storage.addAll(elements);
+		return storage;
+	}
+	
+	/**
+	 * Checks if a value can be stored without boxing.
+	 * 
+	 * @param value The value to check.
+	 * @return <code>true</code> if the value can be stored.
+	 */
+	public abstract boolean accepts(MurmurObject value);
+	
+	/**
+	 * Stores a value into an existing slot.
+	 * 
+	 * @param index The slot index.
+	 * @param value The value to store.
+	 */
+	protected abstract void store(int index, MurmurObject value);
+	
+	/**
+	 * Moves a range of values within the backing array, growing it as
+	 * required.
+	 * 
+	 * @param from The source index.
+	 * @param to The destination index.
+	 * @param length The number of values to move.
+	 */
+	protected abstract void move(int from, int to, int length);
+	
+	protected void checkIndex(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+	
+	private void checkValue(MurmurObject value) {
+		if(!accepts(value)) {
+			throw new IllegalArgumentException("Unsupported element: " + value.getType());
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public MurmurObject set(int index, MurmurObject value) {
+		checkIndex(index);
+		checkValue(value);
+		
+		// Replace the element.
+		MurmurObject old = get(index);
+		store(index, value);
+		return old;
+	}
+
+	@Override
+	public void add(int index, MurmurObject value) {
+		if(index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		checkValue(value);
+		
+		// Shift the following elements up.
+		move(index, index + 1, size - index);
+		size++;
+		modCount++;
+		store(index, value);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends MurmurObject> values) {
+		return addAll(size, values);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends MurmurObject> values) {
+		// Copy first, in case the values are this storage.
+		Object[] added = values.toArray();
+		for(Object value : added) {
+			add(index++, (MurmurObject)value);
+		}
+		return added.length > 0;
+	}
+
+	@Override
+	public MurmurObject remove(int index) {
+		MurmurObject old = get(index);
+		
+		// Shift the following elements down.
+		move(index + 1, index, size - index - 1);
+		size--;
+		modCount++;
+		return old;
+	}
+	
+}
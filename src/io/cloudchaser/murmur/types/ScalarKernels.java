@@ -0,0 +1,181 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.types.NumericOps.Arithmetic;
+import io.cloudchaser.murmur.types.NumericOps.Comparison;
+
+/**
+ * Numeric kernels written as plain counted loops. These run on any JVM,
+ * and are used when the vector API isn't available. Decimal sums keep
+ * four accumulators, so that the additions don't form a single dependency
+ * chain; the loops themselves stay scalar.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class ScalarKernels implements NumericKernels {
+
+	@Override
+	public void apply(long[] a, long[] b, long[] r, int size, Arithmetic op) {
+		switch(op) {
+			case ADD:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] + b[idx];
+				break;
+			case SUBTRACT:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] - b[idx];
+				break;
+			case MULTIPLY:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] * b[idx];
+				break;
+			case DIVIDE:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] / b[idx];
+				break;
+		}
+	}
+
+	@Override
+	public void apply(double[] a, double[] b, double[] r, int size, Arithmetic op) {
+		switch(op) {
+			case ADD:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] + b[idx];
+				break;
+			case SUBTRACT:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] - b[idx];
+				break;
+			case MULTIPLY:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] * b[idx];
+				break;
+			case DIVIDE:
+				for(int idx = 0; idx < size; idx++) r[idx] = a[idx] / b[idx];
+				break;
+		}
+	}
+
+	@Override
+	public void multiplyAdd(long[] a, long[] b, long[] c, long[] r, int size) {
+		for(int idx = 0; idx < size; idx++) r[idx] = a[idx] * b[idx] + c[idx];
+	}
+
+	@Override
+	public void multiplyAdd(double[] a, double[] b, double[] c, double[] r, int size) {
+		for(int idx = 0; idx < size; idx++) r[idx] = a[idx] * b[idx] + c[idx];
+	}
+
+	@Override
+	public void compare(long[] a, long[] b, boolean[] mask, int size, Comparison op) {
+		switch(op) {
+			case LESS_THAN:
+				for(int idx = 0; idx < size; idx++) mask[idx] = a[idx] < b[idx];
+				break;
+			case GREATER_THAN:
+				for(int idx = 0; idx < size; idx++) mask[idx] = a[idx] > b[idx];
+				break;
+			case EQUAL:
+				for(int idx = 0; idx < size; idx++) mask[idx] = a[idx] == b[idx];
+				break;
+		}
+	}
+
+	@Override
+	public void compare(double[] a, double[] b, boolean[] mask, int size, Comparison op) {
+		switch(op) {
+			case LESS_THAN:
+				for(int idx = 0; idx < size; idx++) mask[idx] = a[idx] < b[idx];
+				break;
+			case GREATER_THAN:
+				for(int idx = 0; idx < size; idx++) mask[idx] = a[idx] > b[idx];
+				break;
+			case EQUAL:
+				for(int idx = 0; idx < size; idx++) mask[idx] = a[idx] == b[idx];
+				break;
+		}
+	}
+
+	@Override
+	public long sum(long[] a, int size) {
+		long sum = 0;
+		for(int idx = 0; idx < size; idx++) sum += a[idx];
+		return sum;
+	}
+
+	@Override
+	public double sum(double[] a, int size) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int idx = 0;
+		for(; idx + 3 < size; idx += 4) {
+			s0 += a[idx];
+			s1 += a[idx + 1];
+			s2 += a[idx + 2];
+			s3 += a[idx + 3];
+		}
+		for(; idx < size; idx++) s0 += a[idx];
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	@Override
+	public long dot(long[] a, long[] b, int size) {
+		long sum = 0;
+		for(int idx = 0; idx < size; idx++) sum += a[idx] * b[idx];
+		return sum;
+	}
+
+	@Override
+	public double dot(double[] a, double[] b, int size) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int idx = 0;
+		for(; idx + 3 < size; idx += 4) {
+			s0 += a[idx] * b[idx];
+			s1 += a[idx + 1] * b[idx + 1];
+			s2 += a[idx + 2] * b[idx + 2];
+			s3 += a[idx + 3] * b[idx + 3];
+		}
+		for(; idx < size; idx++) s0 += a[idx] * b[idx];
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	@Override
+	public long extreme(long[] a, int size, boolean largest) {
+		long result = a[0];
+		if(largest) {
+			for(int idx = 1; idx < size; idx++) result = Math.max(result, a[idx]);
+		} else {
+			for(int idx = 1; idx < size; idx++) result = Math.min(result, a[idx]);
+		}
+		return result;
+	}
+
+	@Override
+	public double extreme(double[] a, int size, boolean largest) {
+		double result = a[0];
+		if(largest) {
+			for(int idx = 1; idx < size; idx++) result = Math.max(result, a[idx]);
+		} else {
+			for(int idx = 1; idx < size; idx++) result = Math.min(result, a[idx]);
+		}
+		return result;
+	}
+	
+}
@@ -0,0 +1,254 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import static io.cloudchaser.murmur.types.MurmurType.INTEGER;
+import static io.cloudchaser.murmur.types.MurmurType.STRING;
+
+import io.cloudchaser.murmur.types.PrimitiveStorage.CharStorage;
+import io.cloudchaser.murmur.types.PrimitiveStorage.DoubleStorage;
+import io.cloudchaser.murmur.types.PrimitiveStorage.LongStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorting and searching operations on array elements. Primitive storage
+ * is sorted and searched without boxing.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class SortOps {
+	
+	/**
+	 * Orders strings lexicographically, and other values by their
+	 * less-than operator.
+	 */
+	static final Comparator<MurmurObject> NATURAL_ORDER = (left, right) -> {
+		if(left.getType() == STRING && right.getType() == STRING) {
+			return ((MurmurString)left).getValue()
+					.compareTo(((MurmurString)right).getValue());
+		}
+		if(isTrue(left.opLessThan(right))) return -1;
+		if(isTrue(right.opLessThan(left))) return 1;
+		return 0;
+	};
+	
+	/**
+	 * An element paired with its sort key.
+	 */
+	private static final class Keyed {
+		
+		private final MurmurObject value;
+		private final MurmurObject key;
+
+		Keyed(MurmurObject value, MurmurObject key) {
+			this.value = value;
+			this.key = key;
+		}
+		
+	}
+	
+	private SortOps() {
+	}
+	
+	private static boolean isTrue(MurmurObject value) {
+		return value instanceof MurmurBoolean && ((MurmurBoolean)value).getValue();
+	}
+	
+	/**
+	 * Compares two values with a comparison function, which returns a
+	 * negative, zero or positive integer.
+	 * 
+	 * @param call The comparison function.
+	 * @param left The left value.
+	 * @param right The right value.
+	 * @return The comparison result.
+	 */
+	static int compare(PreparedCall call, MurmurObject left, MurmurObject right) {
+		return Long.signum(call.invoke(left, right).asInteger().getValue());
+	}
+	
+	/**
+	 * Gets the order given by an optional comparison function.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param function The comparison function, or null for natural order.
+	 * @return The order.
+	 */
+	static Comparator<MurmurObject> getOrder(InvocationDelegate delegate,
+			MurmurObject function) {
+		if(function == null) return NATURAL_ORDER;
+		PreparedCall call = new PreparedCall(delegate, function, 2);
+		return (left, right) -> compare(call, left, right);
+	}
+	
+	/**
+	 * Sorts the elements in their natural order.
+	 * 
+	 * @param elements The elements.
+	 * @return The sorted elements.
+	 */
+	static List<MurmurObject> sort(List<MurmurObject> elements) {
+		// Sort primitive storage unboxed.
+		if(elements instanceof LongStorage) {
+			long[] values = Arrays.copyOf(((LongStorage)elements).values(), elements.size());
+			Arrays.sort(values);
+			return new LongStorage(values);
+		} else if(elements instanceof DoubleStorage) {
+			double[] values = Arrays.copyOf(((DoubleStorage)elements).values(), elements.size());
+			Arrays.sort(values);
+			return new DoubleStorage(values);
+		} else if(elements instanceof CharStorage) {
+			char[] values = Arrays.copyOf(((CharStorage)elements).values(), elements.size());
+			Arrays.sort(values);
+			return new CharStorage(values);
+		}
+		
+		// Sort any other elements boxed.
+		List<MurmurObject> sorted = new ArrayList<>(elements);
+		sorted.sort(NATURAL_ORDER);
+		return sorted;
+	}
+	
+	/**
+	 * Sorts the elements by a comparison function. The sort is stable.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param elements The elements.
+	 * @param function The comparison function, taking two arguments.
+	 * @return The sorted elements.
+	 */
+	static List<MurmurObject> sort(InvocationDelegate delegate,
+			List<MurmurObject> elements, MurmurObject function) {
+		List<MurmurObject> sorted = new ArrayList<>(elements);
+		sorted.sort(getOrder(delegate, function));
+		return sorted;
+	}
+	
+	/**
+	 * Sorts the elements by the natural order of a key computed from each.
+	 * Each key is computed once, and the sort is stable.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param elements The elements.
+	 * @param function The key function, taking one argument.
+	 * @return The sorted elements.
+	 */
+	static List<MurmurObject> sortBy(InvocationDelegate delegate,
+			List<MurmurObject> elements, MurmurObject function) {
+		PreparedCall call = new PreparedCall(delegate, function, 1);
+		
+		// Pair each element with its key.
+		Keyed[] keyed = new Keyed[elements.size()];
+		boolean integers = true;
+		for(int idx = 0; idx < keyed.length; idx++) {
+			MurmurObject element = elements.get(idx);
+			keyed[idx] = new Keyed(element, call.invoke(element));
+			integers &= keyed[idx].key.getType() == INTEGER;
+		}
+		
+		// Sort by key, comparing integer keys directly.
+		Arrays.sort(keyed, integers ?
+				(left, right) -> Long.compare(
+						((MurmurInteger)left.key).getValue(),
+						((MurmurInteger)right.key).getValue()) :
+				(left, right) -> NATURAL_ORDER.compare(left.key, right.key));
+		
+		// Drop the keys.
+		List<MurmurObject> sorted = new ArrayList<>(keyed.length);
+		for(Keyed element : keyed) {
+			sorted.add(element.value);
+		}
+		return sorted;
+	}
+	
+	/**
+	 * Searches sorted elements for a value.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param elements The sorted elements.
+	 * @param value The value to find.
+	 * @param function The comparison function the elements are sorted by,
+	 *        or null for natural order.
+	 * @return The value's index, or <code>-(insertion point) - 1</code>.
+	 */
+	static int binarySearch(InvocationDelegate delegate,
+			List<MurmurObject> elements, MurmurObject value,
+			MurmurObject function) {
+		// Search primitive storage unboxed.
+		if(function == null) {
+			if(elements instanceof LongStorage && value.getType() == INTEGER) {
+				return Arrays.binarySearch(((LongStorage)elements).values(),
+						0, elements.size(), ((MurmurInteger)value).getValue());
+			} else if(elements instanceof DoubleStorage && value.getType().numeric) {
+				return Arrays.binarySearch(((DoubleStorage)elements).values(),
+						0, elements.size(), value.asDecimal().getValue());
+			}
+		}
+		
+		return Collections.binarySearch(elements, value, getOrder(delegate, function));
+	}
+	
+	/**
+	 * Finds the largest elements, using a bounded heap.
+	 * 
+	 * @param delegate The invocation delegate.
+	 * @param elements The elements.
+	 * @param count The number of elements to find.
+	 * @param function The comparison function, or null for natural order.
+	 * @return The largest elements, largest first.
+	 */
+	static List<MurmurObject> topK(InvocationDelegate delegate,
+			List<MurmurObject> elements, int count, MurmurObject function) {
+		if(count <= 0) return new ArrayList<>();
+		Comparator<MurmurObject> order = getOrder(delegate, function);
+		
+		// Keep the largest elements seen, smallest at the head.
+		int capacity = Math.max(Math.min(count, elements.size()), 1);
+		PriorityQueue<MurmurObject> heap = new PriorityQueue<>(capacity, order);
+		for(MurmurObject element : elements) {
+			if(heap.size() < count) {
+				heap.add(element);
+			} else if(order.compare(element, heap.peek()) > 0) {
+				heap.poll();
+				heap.add(element);
+			}
+		}
+		
+		// Drain the heap, largest first.
+		MurmurObject[] largest = new MurmurObject[heap.size()];
+		for(int idx = largest.length - 1; idx >= 0; idx--) {
+			largest[idx] = heap.poll();
+		}
+		return new ArrayList<>(Arrays.asList(largest));
+	}
+	
+}
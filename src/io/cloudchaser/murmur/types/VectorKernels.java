@@ -0,0 +1,283 @@
+/*
+ *	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Mihail K
+ *
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+ */
+
+package io.cloudchaser.murmur.types;
+
+import io.cloudchaser.murmur.types.NumericOps.Arithmetic;
+import io.cloudchaser.murmur.types.NumericOps.Comparison;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Numeric kernels written against the incubating vector API, using the
+ * widest vectors the processor supports. This class is only loaded when
+ * the <code>jdk.incubator.vector</code> module is present; otherwise, the
+ * {@link ScalarKernels} are used.
+ * 
+ * Each loop handles whole vectors, and finishes the remaining elements
+ * one at a time. Integer division stays scalar, since processors have no
+ * vector instruction for it.
+ * 
+ * @author Mihail K
+ * @since 0.1
+ */
+final class VectorKernels implements NumericKernels {
+	
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+	
+	/**
+	 * The kernels used for integer division.
+	 */
+	private final NumericKernels scalar = new ScalarKernels();
+
+	@Override
+	public void apply(long[] a, long[] b, long[] r, int size, Arithmetic op) {
+		if(op == Arithmetic.DIVIDE) {
+			scalar.apply(a, b, r, size, op);
+			return;
+		}
+		
+		int idx = 0;
+		for(int bound = LONGS.loopBound(size); idx < bound; idx += LONGS.length()) {
+			LongVector x = LongVector.fromArray(LONGS, a, idx);
+			LongVector y = LongVector.fromArray(LONGS, b, idx);
+			switch(op) {
+				case ADD: x.add(y).intoArray(r, idx); break;
+				case SUBTRACT: x.sub(y).intoArray(r, idx); break;
+				default: x.mul(y).intoArray(r, idx); break;
+			}
+		}
+		
+		// Finish the tail.
+		for(; idx < size; idx++) {
+			switch(op) {
+				case ADD: r[idx] = a[idx] + b[idx]; break;
+				case SUBTRACT: r[idx] = a[idx] - b[idx]; break;
+				default: r[idx] = a[idx] * b[idx]; break;
+			}
+		}
+	}
+
+	@Override
+	public void apply(double[] a, double[] b, double[] r, int size, Arithmetic op) {
+		int idx = 0;
+		for(int bound = DOUBLES.loopBound(size); idx < bound; idx += DOUBLES.length()) {
+			DoubleVector x = DoubleVector.fromArray(DOUBLES, a, idx);
+			DoubleVector y = DoubleVector.fromArray(DOUBLES, b, idx);
+			switch(op) {
+				case ADD: x.add(y).intoArray(r, idx); break;
+				case SUBTRACT: x.sub(y).intoArray(r, idx); break;
+				case MULTIPLY: x.mul(y).intoArray(r, idx); break;
+				case DIVIDE: x.div(y).intoArray(r, idx); break;
+			}
+		}
+		
+		// Finish the tail.
+		for(; idx < size; idx++) {
+			switch(op) {
+				case ADD: r[idx] = a[idx] + b[idx]; break;
+				case SUBTRACT: r[idx] = a[idx] - b[idx]; break;
+				case MULTIPLY: r[idx] = a[idx] * b[idx]; break;
+				case DIVIDE: r[idx] = a[idx] / b[idx]; break;
+			}
+		}
+	}
+
+	@Override
+	public void multiplyAdd(long[] a, long[] b, long[] c, long[] r, int size) {
+		int idx = 0;
+		for(int bound = LONGS.loopBound(size); idx < bound; idx += LONGS.length()) {
+			LongVector.fromArray(LONGS, a, idx)
+					.mul(LongVector.fromArray(LONGS, b, idx))
+					.add(LongVector.fromArray(LONGS, c, idx))
+					.intoArray(r, idx);
+		}
+		for(; idx < size; idx++) r[idx] = a[idx] * b[idx] + c[idx];
+	}
+
+	@Override
+	public void multiplyAdd(double[] a, double[] b, double[] c, double[] r, int size) {
+		// Multiply and add separately; a fused operation rounds differently.
+		int idx = 0;
+		for(int bound = DOUBLES.loopBound(size); idx < bound; idx += DOUBLES.length()) {
+			DoubleVector.fromArray(DOUBLES, a, idx)
+					.mul(DoubleVector.fromArray(DOUBLES, b, idx))
+					.add(DoubleVector.fromArray(DOUBLES, c, idx))
+					.intoArray(r, idx);
+		}
+		for(; idx < size; idx++) r[idx] = a[idx] * b[idx] + c[idx];
+	}
+
+	@Override
+	public void compare(long[] a, long[] b, boolean[] mask, int size, Comparison op) {
+		int idx = 0;
+		for(int bound = LONGS.loopBound(size); idx < bound; idx += LONGS.length()) {
+			LongVector x = LongVector.fromArray(LONGS, a, idx);
+			LongVector y = LongVector.fromArray(LONGS, b, idx);
+			x.compare(toOperator(op), y).intoArray(mask, idx);
+		}
+		
+		// Finish the tail.
+		for(; idx < size; idx++) {
+			switch(op) {
+				case LESS_THAN: mask[idx] = a[idx] < b[idx]; break;
+				case GREATER_THAN: mask[idx] = a[idx] > b[idx]; break;
+				case EQUAL: mask[idx] = a[idx] == b[idx]; break;
+			}
+		}
+	}
+
+	@Override
+	public void compare(double[] a, double[] b, boolean[] mask, int size, Comparison op) {
+		int idx = 0;
+		for(int bound = DOUBLES.loopBound(size); idx < bound; idx += DOUBLES.length()) {
+			DoubleVector x = DoubleVector.fromArray(DOUBLES, a, idx);
+			DoubleVector y = DoubleVector.fromArray(DOUBLES, b, idx);
+			x.compare(toOperator(op), y).intoArray(mask, idx);
+		}
+		
+		// Finish the tail.
+		for(; idx < size; idx++) {
+			switch(op) {
+				case LESS_THAN: mask[idx] = a[idx] < b[idx]; break;
+				case GREATER_THAN: mask[idx] = a[idx] > b[idx]; break;
+				case EQUAL: mask[idx] = a[idx] == b[idx]; break;
+			}
+		}
+	}
+	
+	private static VectorOperators.Comparison toOperator(Comparison op) {
+		switch(op) {
+			case LESS_THAN: return VectorOperators.LT;
+			case GREATER_THAN: return VectorOperators.GT;
+			default: return VectorOperators.EQ;
+		}
+	}
+
+	@Override
+	public long sum(long[] a, int size) {
+		LongVector acc = LongVector.zero(LONGS);
+		int idx = 0;
+		for(int bound = LONGS.loopBound(size); idx < bound; idx += LONGS.length()) {
+			acc = acc.add(LongVector.fromArray(LONGS, a, idx));
+		}
+		long sum = acc.reduceLanes(VectorOperators.ADD);
+		for(; idx < size; idx++) sum += a[idx];
+		return sum;
+	}
+
+	@Override
+	public double sum(double[] a, int size) {
+		// Four accumulators, so the vector additions can overlap.
+		int length = DOUBLES.length(), step = length * 4;
+		DoubleVector s0 = DoubleVector.zero(DOUBLES), s1 = s0, s2 = s0, s3 = s0;
+		int idx = 0;
+		for(; idx + step <= size; idx += step) {
+			s0 = s0.add(DoubleVector.fromArray(DOUBLES, a, idx));
+			s1 = s1.add(DoubleVector.fromArray(DOUBLES, a, idx + length));
+			s2 = s2.add(DoubleVector.fromArray(DOUBLES, a, idx + length * 2));
+			s3 = s3.add(DoubleVector.fromArray(DOUBLES, a, idx + length * 3));
+		}
+		for(int bound = DOUBLES.loopBound(size); idx < bound; idx += length) {
+			s0 = s0.add(DoubleVector.fromArray(DOUBLES, a, idx));
+		}
+		double sum = s0.add(s1).add(s2.add(s3)).reduceLanes(VectorOperators.ADD);
+		for(; idx < size; idx++) sum += a[idx];
+		return sum;
+	}
+
+	@Override
+	public long dot(long[] a, long[] b, int size) {
+		LongVector acc = LongVector.zero(LONGS);
+		int idx = 0;
+		for(int bound = LONGS.loopBound(size); idx < bound; idx += LONGS.length()) {
+			acc = acc.add(LongVector.fromArray(LONGS, a, idx)
+					.mul(LongVector.fromArray(LONGS, b, idx)));
+		}
+		long sum = acc.reduceLanes(VectorOperators.ADD);
+		for(; idx < size; idx++) sum += a[idx] * b[idx];
+		return sum;
+	}
+
+	@Override
+	public double dot(double[] a, double[] b, int size) {
+		// Four accumulators, so the vector additions can overlap.
+		int length = DOUBLES.length(), step = length * 4;
+		DoubleVector s0 = DoubleVector.zero(DOUBLES), s1 = s0, s2 = s0, s3 = s0;
+		int idx = 0;
+		for(; idx + step <= size; idx += step) {
+			s0 = s0.add(DoubleVector.fromArray(DOUBLES, a, idx)
+					.mul(DoubleVector.fromArray(DOUBLES, b, idx)));
+			s1 = s1.add(DoubleVector.fromArray(DOUBLES, a, idx + length)
+					.mul(DoubleVector.fromArray(DOUBLES, b, idx + length)));
+			s2 = s2.add(DoubleVector.fromArray(DOUBLES, a, idx + length * 2)
+					.mul(DoubleVector.fromArray(DOUBLES, b, idx + length * 2)));
+			s3 = s3.add(DoubleVector.fromArray(DOUBLES, a, idx + length * 3)
+					.mul(DoubleVector.fromArray(DOUBLES, b, idx + length * 3)));
+		}
+		for(int bound = DOUBLES.loopBound(size); idx < bound; idx += length) {
+			s0 = s0.add(DoubleVector.fromArray(DOUBLES, a, idx)
+					.mul(DoubleVector.fromArray(DOUBLES, b, idx)));
+		}
+		double sum = s0.add(s1).add(s2.add(s3)).reduceLanes(VectorOperators.ADD);
+		for(; idx < size; idx++) sum += a[idx] * b[idx];
+		return sum;
+	}
+
+	@Override
+	public long extreme(long[] a, int size, boolean largest) {
+		LongVector acc = LongVector.broadcast(LONGS, a[0]);
+		int idx = 0;
+		for(int bound = LONGS.loopBound(size); idx < bound; idx += LONGS.length()) {
+			LongVector x = LongVector.fromArray(LONGS, a, idx);
+			acc = largest ? acc.max(x) : acc.min(x);
+		}
+		long result = acc.reduceLanes(largest ? VectorOperators.MAX : VectorOperators.MIN);
+		for(; idx < size; idx++) {
+			result = largest ? Math.max(result, a[idx]) : Math.min(result, a[idx]);
+		}
+		return result;
+	}
+
+	@Override
+	public double extreme(double[] a, int size, boolean largest) {
+		DoubleVector acc = DoubleVector.broadcast(DOUBLES, a[0]);
+		int idx = 0;
+		for(int bound = DOUBLES.loopBound(size); idx < bound; idx += DOUBLES.length()) {
+			DoubleVector x = DoubleVector.fromArray(DOUBLES, a, idx);
+			acc = largest ? acc.max(x) : acc.min(x);
+		}
+		double result = acc.reduceLanes(largest ? VectorOperators.MAX : VectorOperators.MIN);
+		for(; idx < size; idx++) {
+			result = largest ? Math.max(result, a[idx]) : Math.min(result, a[idx]);
+		}
+		return result;
+	}
+	
+}
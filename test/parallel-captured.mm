@@ -0,0 +1,33 @@
+/*
+ * Regression script: parallel calls that read captured values.
+ * 
+ * Run with several worker threads, for example:
+ *   java -Djava.util.concurrent.ForkJoinPool.common.parallelism=4 \
+ *       io.cloudchaser.murmur.Murmur test/parallel-captured.mm
+ * 
+ * Every line should print true. A captured value that was computed lazily
+ * through the main thread's visitor would fail with spurious
+ * "Not found" errors on the workers.
+ */
+let Sys = require "java.lang.System"
+let src = [1 .. 2000]
+
+// A mapped array is computed when bound, so workers only read it.
+let m = src.map((y) { let z = y * 3; return z })
+let r = src.parallelMap((x) { return m[x - 1] - x })
+Sys.out.println(r.reduce((p, q) { return p + q }, 0) == 4002000)
+
+// A chained pipeline is computed when the chain ends.
+let f = src.map((y) { let z = y + 1; return z }).filter((y) { return y % 2 == 0 })
+let g = src.parallelMap((x) { return f[(x - 1) % 1000] })
+Sys.out.println(g.reduce((p, q) { return p + q }, 0) == 2002000)
+
+// A member bound to a sequence runs its stages on the calling thread.
+let s = src.toSequence().map((y) { let z = y * 2; return z })
+let t = s.toArray
+let u = src.parallelMap((x) { return t()[x - 1] - x })
+Sys.out.println(u == src)
+
+// So does a captured sequence passed along.
+let v = src.parallelMap((x) { let w = s; return x })
+Sys.out.println(v == src)